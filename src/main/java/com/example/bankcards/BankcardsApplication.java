@@ -4,10 +4,17 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+import java.util.Arrays;
+
+// The reactive read API (mvn -Preactive) puts R2DBC on the classpath; this application reads through JPA only.
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
 @EnableScheduling
 public class BankcardsApplication {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(MigrationApplication.COMMAND)) {
+            MigrationApplication.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SpringApplication.run(BankcardsApplication.class, args);
     }
 }
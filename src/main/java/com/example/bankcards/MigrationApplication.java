@@ -0,0 +1,52 @@
+package com.example.bankcards;
+
+import com.example.bankcards.config.ShardingConfig;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Migration-only launch mode, {@code java -jar bankcards.jar migrate}: applies the Liquibase
+ * changelog to the database, or to every shard with {@code sharding.enabled=true}, and exits
+ * without starting JPA, the web server or the scheduled jobs. The instances serving requests can
+ * then start with {@code spring.liquibase.enabled=false}.
+ * <p>
+ * Not a {@code @SpringBootConfiguration}, so tests keep finding {@link BankcardsApplication}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, DataSourceAutoConfiguration.class,
+        LiquibaseAutoConfiguration.class})
+@Import(ShardingConfig.class)
+@Profile(MigrationApplication.PROFILE)
+public class MigrationApplication {
+
+    public static final String COMMAND = "migrate";
+    static final String PROFILE = "migrate";
+
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(run(args)));
+    }
+
+    /**
+     * Runs the changelog, whatever {@code spring.liquibase.enabled} says for the serving instances.
+     */
+    static ConfigurableApplicationContext run(String... args) {
+        return new SpringApplicationBuilder(MigrationApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(PROFILE)
+                .initializers(context -> context.getEnvironment().getPropertySources().addFirst(
+                        new MapPropertySource(PROFILE, Map.of("spring.liquibase.enabled", true))))
+                .run(args);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    /**
+     * Events buffered in memory before publishers start waiting.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum rows per insert batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest time an event waits for its batch to fill up.
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * How long a publisher waits for queue space before writing its event itself.
+     */
+    private Duration offerTimeout = Duration.ofMillis(10);
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "balance-snapshots")
+public class BalanceSnapshotProperties {
+
+    /**
+     * Cards copied per {@code INSERT ... SELECT}; each chunk commits on its own.
+     */
+    private int chunkSize = 10000;
+
+    /**
+     * Whether the job adds the monthly partitions it writes to. Requires MySQL and the ALTER
+     * privilege; turn off when partitions are managed outside the application.
+     */
+    private boolean managePartitions = true;
+}
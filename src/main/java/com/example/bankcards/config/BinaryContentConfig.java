@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serves and accepts CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * next to JSON, chosen by the {@code Accept} and {@code Content-Type} headers. Internal clients use
+ * them to skip text parsing; the documents are the same as the JSON ones.
+ * <p>
+ * The mappers come from the application's {@link Jackson2ObjectMapperBuilder}, so every
+ * {@code spring.jackson} setting and module applies to the binary formats as well.
+ */
+@Configuration
+public class BinaryContentConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bulk-issue")
+public class BulkIssueProperties {
+
+    /**
+     * Cards inserted per transaction; each batch is committed on its own.
+     */
+    private int batchSize = 1000;
+
+    private int maxCardsPerJob = 200_000;
+
+    /**
+     * Threads encrypting card numbers; 0 means one per available processor.
+     */
+    private int encryptionThreads = 0;
+
+    /**
+     * How long a finished job's progress can still be polled.
+     */
+    private Duration jobRetention = Duration.ofHours(24);
+}
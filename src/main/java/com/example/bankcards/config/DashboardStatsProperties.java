@@ -0,0 +1,14 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "dashboard-stats")
+public class DashboardStatsProperties {
+
+    /**
+     * Rows each total is spread over, so concurrent writers rarely wait on the same row lock.
+     */
+    private int stripes = 16;
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured {@link DataSource} with a primary/replica routing one when
+ * {@code datasource-routing.enabled=true}. The primary is built from {@code spring.datasource}.
+ * Every pool takes the {@code spring.datasource.hikari} settings; replicas wait at most
+ * {@code datasource-routing.replica-connection-timeout} for a connection before the read falls back
+ * to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             DataSourceRoutingProperties routingProperties,
+                                                             Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (DataSourceRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+            String name = replica.getName() != null ? replica.getName() : "replica-" + replicas.size();
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(name);
+            dataSource.setReadOnly(true);
+            dataSource.setConnectionTimeout(routingProperties.getReplicaConnectionTimeout().toMillis());
+            replicas.put(name, dataSource);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, routingProperties.getStalenessWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public SchedulingConfigurer replicaHealthCheck(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                   DataSourceRoutingProperties routingProperties) {
+        return registrar -> registrar.addFixedDelayTask(
+                replicaRoutingDataSource::checkReplicas, routingProperties.getHealthCheckInterval());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled;
+
+    /**
+     * How long a principal's reads stay on the primary after it commits a write.
+     */
+    private Duration stalenessWindow = Duration.ofSeconds(2);
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a read waits for a replica connection before the replica is marked down and the
+     * read goes to the primary. Hikari does not accept less than 250 ms.
+     */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(1);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
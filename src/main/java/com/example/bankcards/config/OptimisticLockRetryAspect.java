@@ -0,0 +1,157 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.RetryOnOptimisticLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays {@link RetryOnOptimisticLock} methods that fail with an optimistic lock conflict.
+ * <p>
+ * Ordered just ahead of the transaction interceptor so every attempt runs in a fresh
+ * transaction and persistence context. Retries wait a random delay up to an exponentially
+ * growing cap ("full jitter") so that colliding writers spread out instead of colliding again.
+ * A shared token bucket bounds the retry volume: each retry spends a token and first-attempt
+ * successes slowly earn tokens back, so under sustained contention conflicts surface to the
+ * caller instead of multiplying the load.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(OptimisticLockRetryProperties.class)
+public class OptimisticLockRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetryAspect.class);
+    private static final long MILLI_TOKENS = 1000;
+
+    private final OptimisticLockRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong budget;
+    private final long budgetCapacity;
+    private final long budgetRefill;
+
+    public OptimisticLockRetryAspect(OptimisticLockRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.budgetCapacity = properties.getBudgetCapacity() * MILLI_TOKENS;
+        this.budgetRefill = Math.round(properties.getBudgetRefillPerSuccess() * MILLI_TOKENS);
+        this.budget = new AtomicLong(budgetCapacity);
+        Gauge.builder("bankcards.optimistic_lock.retry_budget", budget, value -> (double) value.get() / MILLI_TOKENS)
+                .description("Retry tokens left in the shared optimistic lock retry budget")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retry) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The conflict poisons the outer transaction; only its owner can replay it.
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        int maxAttempts = retry.maxAttempts() > 0 ? retry.maxAttempts() : properties.getMaxAttempts();
+        counter("bankcards.optimistic_lock.calls", method).increment();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt == 1) {
+                    refillBudget();
+                }
+                return result;
+            } catch (RuntimeException ex) {
+                if (!isOptimisticLockFailure(ex)) {
+                    throw ex;
+                }
+                counter("bankcards.optimistic_lock.conflicts", method).increment();
+
+                if (attempt >= maxAttempts) {
+                    failure(method, "exhausted").increment();
+                    logger.warn("{} lost {} optimistic lock races in a row, giving up", method, attempt);
+                    throw ex;
+                }
+                if (!acquireBudget()) {
+                    failure(method, "budget").increment();
+                    logger.warn("{} hit an optimistic lock conflict and the retry budget is exhausted", method);
+                    throw ex;
+                }
+
+                counter("bankcards.optimistic_lock.retries", method).increment();
+                logger.debug("{} hit an optimistic lock conflict, retrying (attempt {} of {})",
+                        method, attempt + 1, maxAttempts);
+                if (!backOff(attempt)) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    double remainingBudget() {
+        return (double) budget.get() / MILLI_TOKENS;
+    }
+
+    private boolean backOff(int attempt) {
+        long cap = Math.min(properties.getMaxBackoff().toMillis(),
+                properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        if (cap <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean acquireBudget() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < MILLI_TOKENS) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - MILLI_TOKENS));
+        return true;
+    }
+
+    private void refillBudget() {
+        if (budget.get() < budgetCapacity) {
+            budget.updateAndGet(current -> Math.min(budgetCapacity, current + budgetRefill));
+        }
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Counter counter(String name, String method) {
+        return meterRegistry.counter(name, "method", method);
+    }
+
+    private Counter failure(String method, String reason) {
+        return meterRegistry.counter("bankcards.optimistic_lock.failures", "method", method, "reason", reason);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "optimistic-lock-retry")
+public class OptimisticLockRetryProperties {
+
+    /**
+     * Total attempts per call, including the first one.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Upper bound of the jittered delay before the first retry; doubled for every further retry.
+     */
+    private Duration initialBackoff = Duration.ofMillis(20);
+
+    private Duration maxBackoff = Duration.ofMillis(500);
+
+    /**
+     * Retry tokens available in the shared budget. Every retry spends one token.
+     */
+    private int budgetCapacity = 50;
+
+    /**
+     * Tokens returned to the budget by each call that succeeds on its first attempt.
+     */
+    private double budgetRefillPerSuccess = 0.1;
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Which {@code OutboxSink} receives relayed events; {@code log} selects the built-in logging sink.
+     * Any other value expects an {@code OutboxSink} bean to be provided.
+     */
+    private String sink = "log";
+
+    /**
+     * Events locked, published and deleted per relay transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound on back-to-back batches in one poll, so a large backlog does not hold the
+     * scheduler thread indefinitely.
+     */
+    private int maxBatchesPerPoll = 20;
+}
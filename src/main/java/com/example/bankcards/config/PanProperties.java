@@ -0,0 +1,30 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "pan")
+public class PanProperties {
+
+    /**
+     * Issuer identification numbers (6 to 8 digits) to issue 16-digit card numbers from, used in order:
+     * the next one is taken once every account number under the previous one has been issued.
+     */
+    private List<String> bins = new ArrayList<>(List.of("400000"));
+
+    /**
+     * Account numbers reserved per database round trip. A node that stops loses the unused rest of its
+     * block, which only leaves a gap.
+     */
+    private int blockSize = 10_000;
+
+    /**
+     * Maps the sequential account index to the issued account number so that consecutive cards do not
+     * get consecutive numbers. Must end in 1, 3, 7 or 9 and must never change once cards are issued.
+     */
+    private long scrambleMultiplier = 738_245_413L;
+}
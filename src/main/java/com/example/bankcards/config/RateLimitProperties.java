@@ -0,0 +1,60 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the number of live buckets; the least recently used ones are dropped first.
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * Buckets untouched for this long are dropped. Should exceed the time a bucket takes to refill.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Limits checked in order; the first route whose pattern and method match the request applies.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    public enum KeyType {
+        /**
+         * The authenticated user, falling back to the client address for anonymous requests.
+         */
+        USER,
+        IP
+    }
+
+    @Data
+    public static class Route {
+        private String pattern;
+
+        /**
+         * HTTP methods the route applies to; empty means all.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        private KeyType keyBy = KeyType.USER;
+
+        /**
+         * Requests allowed in a burst.
+         */
+        private int capacity;
+
+        /**
+         * Sustained requests per second.
+         */
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "reconciliation")
+public class ReconciliationProperties {
+
+    /**
+     * Cards checked per query; each chunk is a short read that takes no locks.
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Threads checking chunks; 0 means one per available processor.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Drifted cards and users listed in the report; the drift count always covers all of them.
+     */
+    private int maxReportedDrifts = 1000;
+}
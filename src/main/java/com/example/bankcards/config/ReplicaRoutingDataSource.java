@@ -0,0 +1,213 @@
+package com.example.bankcards.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions of authenticated users to replicas and
+ * everything else to the primary.
+ * <p>
+ * Replicas are picked round-robin among those currently healthy; a replica that cannot be
+ * connected to is marked down and reads fall back to the primary until the next successful
+ * health check. A replica whose pool is only exhausted stays in rotation: that one read goes to
+ * the primary instead. After a principal commits a write, its reads stay on the
+ * primary for the configured staleness window so it always sees its own changes.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only known once the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long stalenessWindowNanos;
+    private final Map<String, Long> lastWriteByPrincipal = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Object writeTrackingKey = new Object();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration stalenessWindow) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.stalenessWindowNanos = stalenessWindow.toNanos();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException ex) {
+                replica.failed(ex);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException ex) {
+                replica.failed(ex);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Validates every replica and brings recovered ones back into rotation.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(2)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException ex) {
+                replica.failed(ex);
+            }
+        }
+        long now = System.nanoTime();
+        lastWriteByPrincipal.values().removeIf(writtenAt -> now - writtenAt > stalenessWindowNanos);
+    }
+
+    public boolean isReplicaHealthy(String name) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(name) && replica.healthy);
+    }
+
+    private Replica selectReplica() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String principal = currentPrincipal();
+
+        if (!readOnly) {
+            trackWrite(principal);
+            return null;
+        }
+        if (principal == null || recentlyWrote(principal)) {
+            return null;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private boolean recentlyWrote(String principal) {
+        Long writtenAt = lastWriteByPrincipal.get(principal);
+        return writtenAt != null && System.nanoTime() - writtenAt <= stalenessWindowNanos;
+    }
+
+    private void trackWrite(String principal) {
+        if (principal == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writeTrackingKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeTrackingKey, principal);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteByPrincipal.put(principal, System.nanoTime());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeTrackingKey);
+            }
+        });
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                logger.info("Replica {} is back in rotation", name);
+                healthy = true;
+            }
+        }
+
+        private void failed(SQLException ex) {
+            // Hikari times out without a cause when every connection is in use, and attaches the
+            // last connect failure when it could not open one.
+            if (ex instanceof SQLTransientConnectionException && ex.getCause() == null) {
+                logger.debug("Replica {} has no free connection: {}", name, ex.getMessage());
+                return;
+            }
+            markDown(ex);
+        }
+
+        private void markDown(SQLException cause) {
+            if (healthy) {
+                logger.warn("Replica {} taken out of rotation: {}", name,
+                        cause != null ? cause.getMessage() : "connection is not valid");
+                healthy = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.ShardKey;
+import com.example.bankcards.util.ShardContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.annotation.Annotation;
+import java.util.UUID;
+
+/**
+ * Binds the shard a service method works on before its transaction starts.
+ * <p>
+ * Ordered outside the optimistic lock retry and the transaction interceptor, so every attempt and
+ * every per-shard run of a {@link com.example.bankcards.service.ForEachShard} job gets a
+ * transaction of its own on the right shard. Does nothing while there is a single shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class ShardRoutingAspect {
+
+    private final ShardTopology shardTopology;
+
+    public ShardRoutingAspect(ShardTopology shardTopology) {
+        this.shardTopology = shardTopology;
+    }
+
+    @Around("execution(* *(@com.example.bankcards.service.ShardKey (*), ..))")
+    public Object routeByKey(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shardTopology.isSharded()) {
+            return joinPoint.proceed();
+        }
+        Object key = joinPoint.getArgs()[0];
+        String property = shardKey((MethodSignature) joinPoint.getSignature()).value();
+        if (!property.isEmpty() && key != null) {
+            key = PropertyAccessorFactory.forBeanPropertyAccess(key).getPropertyValue(property);
+        }
+        int shard;
+        if (key instanceof UUID id) {
+            shard = shardTopology.shardOf(id);
+        } else if (key instanceof String username) {
+            shard = shardTopology.shardOf(username);
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A user or card is required.");
+        }
+        try (ShardContext.Scope ignored = ShardContext.use(shard)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    @Around("@annotation(com.example.bankcards.service.ForEachShard)")
+    public Object runOnEveryShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shardTopology.isSharded()) {
+            return joinPoint.proceed();
+        }
+        Throwable failure = null;
+        for (int shard = 0; shard < shardTopology.getShardCount(); shard++) {
+            try (ShardContext.Scope ignored = ShardContext.use(shard)) {
+                joinPoint.proceed();
+            } catch (Throwable ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    private static ShardKey shardKey(MethodSignature signature) {
+        for (Annotation annotation : signature.getMethod().getParameterAnnotations()[0]) {
+            if (annotation instanceof ShardKey shardKey) {
+                return shardKey;
+            }
+        }
+        throw new IllegalStateException("@ShardKey must be on the first parameter of " + signature);
+    }
+}
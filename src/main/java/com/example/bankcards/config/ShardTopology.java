@@ -0,0 +1,61 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.ShardContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * How many shards this application context routes to, and which one holds a user or card: one
+ * when {@code sharding.enabled} is off, otherwise one per entry of {@code sharding.shards}.
+ * The shard a thread works on is bound through {@link ShardContext}.
+ */
+@Component
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardTopology {
+
+    private final int shardCount;
+
+    @Autowired
+    public ShardTopology(ShardingProperties properties) {
+        this(properties.isEnabled() ? properties.getShards().size() : 1);
+    }
+
+    public ShardTopology(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(UUID id) {
+        return ShardContext.keyBits(id) % shardCount;
+    }
+
+    public int shardOf(String username) {
+        return ShardContext.keyBits(username) % shardCount;
+    }
+
+    /**
+     * Runs {@code action} once per shard, or once without binding anything when not sharded.
+     */
+    public void forEachShard(Runnable action) {
+        if (!isSharded()) {
+            action.run();
+            return;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardContext.runOn(shard, action);
+        }
+    }
+}
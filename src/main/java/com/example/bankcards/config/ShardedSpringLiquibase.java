@@ -0,0 +1,90 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidBytes;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies the changelog to every shard in turn.
+ * <p>
+ * The changelog seeds the {@code admin} user with a fixed id on every shard. Afterwards the admin
+ * is kept only on the shard its username routes to, with the shard key of the username in its id
+ * like any other user, so it can be found by id as well as by username.
+ * <p>
+ * Ids created before the shard key was added to them carry random low bits, and such users would
+ * be looked up on the wrong shard. With more than one shard, startup therefore fails if any shard
+ * holds a user whose id does not carry the key of its username or whose key routes elsewhere;
+ * those users and their cards have to be re-keyed and moved before sharding can be turned on.
+ */
+public class ShardedSpringLiquibase extends SpringLiquibase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedSpringLiquibase.class);
+    private static final String ADMIN = "admin";
+
+    private final List<DataSource> shards;
+
+    public ShardedSpringLiquibase(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            setDataSource(shards.get(shard));
+            super.afterPropertiesSet();
+            if (shards.size() > 1) {
+                placeAdmin(new JdbcTemplate(shards.get(shard)), shard);
+            }
+        }
+        if (shards.size() > 1) {
+            checkUserIds();
+        }
+    }
+
+    private void checkUserIds() {
+        long misplaced = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int expected = shard;
+            long[] count = new long[1];
+            new JdbcTemplate(shards.get(shard)).query("SELECT id, username FROM users", rs -> {
+                UUID id = UuidBytes.fromBytes(rs.getBytes("id"));
+                int keyBits = ShardContext.keyBits(rs.getString("username"));
+                if ((ShardContext.keyBits(id) != keyBits || keyBits % shards.size() != expected) && count[0]++ == 0) {
+                    logger.error("User {} on shard {} has an id that does not route to it", id, expected);
+                }
+            });
+            misplaced += count[0];
+        }
+        if (misplaced > 0) {
+            throw new IllegalStateException(misplaced + " users have ids that do not route to the shard holding "
+                    + "them; re-key and move them and their cards before sharding across " + shards.size() + " shards");
+        }
+    }
+
+    private void placeAdmin(JdbcTemplate jdbcTemplate, int shard) {
+        List<byte[]> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE username = ?", byte[].class, ADMIN);
+        if (ids.isEmpty()) {
+            return;
+        }
+        UUID id = UuidBytes.fromBytes(ids.get(0));
+        if (shard != ShardContext.keyBits(ADMIN) % shards.size()) {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ? AND NOT EXISTS (SELECT 1 FROM cards WHERE user_id = ?)",
+                    ids.get(0), ids.get(0));
+            return;
+        }
+        if (ShardContext.keyBits(id) != ShardContext.keyBits(ADMIN)) {
+            UUID keyed = new UUID(id.getMostSignificantBits(),
+                    (id.getLeastSignificantBits() & ~0xFFFFL) | ShardContext.keyBits(ADMIN));
+            jdbcTemplate.update("UPDATE users SET id = ? WHERE id = ?", UuidBytes.toBytes(keyed), ids.get(0));
+            logger.info("Moved the admin user to id {} on shard {}", keyed, shard);
+        }
+    }
+}
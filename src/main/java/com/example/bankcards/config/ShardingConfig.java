@@ -0,0 +1,75 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured {@link DataSource} with one routing to the shard of the current
+ * user when {@code sharding.enabled=true}, and migrates every shard on startup. Every shard pool
+ * takes the {@code spring.datasource.hikari} settings. Cannot be combined with
+ * {@code datasource-routing}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ShardingProperties.class, LiquibaseProperties.class})
+public class ShardingConfig {
+
+    public ShardingConfig(Environment environment) {
+        if (environment.getProperty("datasource-routing.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("sharding and datasource-routing cannot be enabled together");
+        }
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, Environment environment) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.shards must list at least one shard");
+        }
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .driverClassName(shard.getDriverClassName())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(shard.getName() != null ? shard.getName() : "shard-" + shards.size());
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardedSpringLiquibase liquibase(ShardRoutingDataSource shardRoutingDataSource,
+                                            LiquibaseProperties liquibaseProperties) {
+        ShardedSpringLiquibase liquibase = new ShardedSpringLiquibase(shardRoutingDataSource.getShards());
+        liquibase.setChangeLog(liquibaseProperties.getChangeLog());
+        liquibase.setContexts(liquibaseProperties.getContexts() != null
+                ? String.join(",", liquibaseProperties.getContexts()) : null);
+        liquibase.setShouldRun(liquibaseProperties.isEnabled());
+        return liquibase;
+    }
+}
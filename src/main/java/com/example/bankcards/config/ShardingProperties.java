@@ -0,0 +1,30 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * The shard databases, in order. A user is placed by its id modulo the number of shards, so
+     * shards can only be added or removed together with moving the data; tables that are not keyed
+     * by user, such as {@code audit_log} and {@code pan_block_counter}, live on the first shard.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
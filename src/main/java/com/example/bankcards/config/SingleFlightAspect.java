@@ -0,0 +1,90 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.ShardContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Runs one call per distinct {@link com.example.bankcards.service.SingleFlight} key at a time and
+ * hands its outcome to the calls that arrived while it was running.
+ * <p>
+ * Ordered outside the shard routing, the optimistic lock retry and the transaction interceptor,
+ * so the collapsed calls share a single transaction and query. Counts leading and joining calls
+ * per method in {@code bankcards.single_flight.calls}.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 3)
+public class SingleFlightAspect {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(com.example.bankcards.service.SingleFlight)")
+    public Object collapse(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The caller must see what its own transaction sees.
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, principal(), ShardContext.currentShard(), Arrays.asList(joinPoint.getArgs()));
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            meterRegistry.counter("bankcards.single_flight.calls", "method", name, "role", "joined").increment();
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        meterRegistry.counter("bankcards.single_flight.calls", "method", name, "role", "led").increment();
+        try {
+            Object result = joinPoint.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private record Key(Method method, String principal, int shard, List<Object> args) {
+    }
+}
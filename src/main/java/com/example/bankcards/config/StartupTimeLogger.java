@@ -0,0 +1,38 @@
+package com.example.bankcards.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Logs how long after JVM start the application came up: once every singleton is created, which
+ * is as far as the measurement runs of the {@code startup} build profile get without a database,
+ * and again when the application is ready to serve.
+ */
+@Component
+public class StartupTimeLogger implements SmartInitializingSingleton, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeLogger.class);
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        logger.info("Beans created {} ms after JVM start (AOT: {}, JVM: {})", uptime(),
+                AotDetector.useGeneratedArtifacts(), System.getProperty("java.vm.info"));
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        logger.info("Ready {} ms after JVM start, {} ms of it in SpringApplication.run", uptime(),
+                event.getTimeTaken().toMillis());
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
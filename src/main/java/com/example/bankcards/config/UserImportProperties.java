@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "user-import")
+public class UserImportProperties {
+
+    /**
+     * Rows checked for existing usernames and inserted per transaction.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Threads hashing passwords; 0 means one per available processor.
+     */
+    private int hashingThreads = 0;
+
+    /**
+     * Row failures listed in the response; the rejected count always covers all of them.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -1,14 +1,32 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AdminStatsResponse;
+import com.example.bankcards.dto.BulkIssueJobResponse;
+import com.example.bankcards.dto.BulkIssueRequest;
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBatchResponse;
+import com.example.bankcards.dto.CardFields;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardSearchRequest;
+import com.example.bankcards.dto.PagedResponse;
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.dto.UserImportResponse;
 import com.example.bankcards.dto.UserResponse;
 import com.example.bankcards.service.AdminService;
+import com.example.bankcards.service.BalanceReconciler;
+import com.example.bankcards.service.BulkCardIssuer;
+import com.example.bankcards.service.UserImporter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,11 +36,67 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final BulkCardIssuer bulkCardIssuer;
+    private final UserImporter userImporter;
+    private final BalanceReconciler balanceReconciler;
+
+    @GetMapping("/stats")
+    public ResponseEntity<AdminStatsResponse> getStats() {
+        return ResponseEntity.ok(adminService.getStats());
+    }
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ReconciliationReport> startReconciliation() {
+        return ResponseEntity.accepted().body(balanceReconciler.start());
+    }
+
+    @GetMapping("/reconciliation")
+    public ResponseEntity<ReconciliationReport> getReconciliation() {
+        return ResponseEntity.ok(balanceReconciler.getLatest());
+    }
 
     @GetMapping("/cards")
-    public ResponseEntity<Page<CardResponse>> getAllCards(Pageable pageable) {
-        Page<CardResponse> cards = adminService.getAllCards(pageable);
-        return ResponseEntity.ok(cards);
+    public ResponseEntity<PagedResponse<CardResponse>> getAllCards(
+            Pageable pageable, @RequestParam(defaultValue = "false") boolean ownerRefs,
+            @RequestParam(required = false) String fields) {
+        CardFields selected = CardFields.parse(fields);
+        Page<CardResponse> cards = selected != null
+                ? adminService.getAllCards(pageable, selected)
+                : adminService.getAllCards(pageable);
+        return ResponseEntity.ok(PagedResponse.ofCards(cards, ownerRefs));
+    }
+
+    @GetMapping(value = "/cards", params = "ids")
+    public ResponseEntity<CardBatchResponse> getCardsByIds(@RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(adminService.getCardsByIds(ids));
+    }
+
+    @GetMapping("/cards/search")
+    public ResponseEntity<PagedResponse<CardResponse>> searchCards(
+            CardSearchRequest request, Pageable pageable, @RequestParam(defaultValue = "false") boolean ownerRefs,
+            @RequestParam(required = false) String fields) {
+        CardFields selected = CardFields.parse(fields);
+        Page<CardResponse> cards = selected != null
+                ? adminService.searchCards(request, pageable, selected)
+                : adminService.searchCards(request, pageable);
+        return ResponseEntity.ok(PagedResponse.ofCards(cards, ownerRefs));
+    }
+
+    @PostMapping("/cards/bulk")
+    public ResponseEntity<BulkIssueJobResponse> bulkIssueCards(@RequestBody BulkIssueRequest request) {
+        BulkIssueJobResponse job = bulkCardIssuer.submit(request);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/cards/bulk/{jobId}")
+    public ResponseEntity<BulkIssueJobResponse> getBulkIssueJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(bulkCardIssuer.getJob(jobId));
+    }
+
+    @GetMapping("/cards/{id}/balance")
+    public ResponseEntity<CardBalanceResponse> getCardBalanceAsOf(
+            @PathVariable UUID id, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(adminService.getCardBalanceAsOf(id, date));
     }
 
     @PostMapping("/cards/{id}/block")
@@ -44,9 +118,14 @@ public class AdminController {
     }
 
     @GetMapping("/users")
-    public ResponseEntity<Page<UserResponse>> getAllUsers(Pageable pageable) {
+    public ResponseEntity<PagedResponse<UserResponse>> getAllUsers(Pageable pageable) {
         Page<UserResponse> users = adminService.getAllUsers(pageable);
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok(PagedResponse.of(users));
+    }
+
+    @PostMapping(value = "/users/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResponse> importUsers(InputStream csv) {
+        return ResponseEntity.ok(userImporter.importCsv(csv));
     }
 
     @PostMapping("/users/{id}/block")
@@ -69,8 +148,13 @@ public class AdminController {
 
     @GetMapping("/users/{userId}/cards")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<CardResponse>> getCardsByUserId(@PathVariable UUID userId, Pageable pageable) {
-        Page<CardResponse> cards = adminService.getCardsByUserId(userId, pageable);
-        return ResponseEntity.ok(cards);
+    public ResponseEntity<PagedResponse<CardResponse>> getCardsByUserId(
+            @PathVariable UUID userId, Pageable pageable, @RequestParam(defaultValue = "false") boolean ownerRefs,
+            @RequestParam(required = false) String fields) {
+        CardFields selected = CardFields.parse(fields);
+        Page<CardResponse> cards = selected != null
+                ? adminService.getCardsByUserId(userId, pageable, selected)
+                : adminService.getCardsByUserId(userId, pageable);
+        return ResponseEntity.ok(PagedResponse.ofCards(cards, ownerRefs));
     }
 }
\ No newline at end of file
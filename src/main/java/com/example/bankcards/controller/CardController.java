@@ -1,17 +1,28 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBatchResponse;
+import com.example.bankcards.dto.CardFields;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.PagedResponse;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.dto.TransferRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +30,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CardController {
 
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private final CardService cardService;
 
     @PostMapping
@@ -30,16 +44,89 @@ public class CardController {
 
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Page<CardResponse>> getMyCards(Pageable pageable) {
-        Page<CardResponse> cards = cardService.getCardsForCurrentUser(pageable);
-        return ResponseEntity.ok(cards);
+    public ResponseEntity<PagedResponse<CardResponse>> getMyCards(
+            Pageable pageable, @RequestParam(defaultValue = "false") boolean ownerRefs,
+            @RequestParam(required = false) String fields, WebRequest webRequest) {
+        CardFields selected = CardFields.parse(fields);
+        String eTag = cardService.getCardsETagForCurrentUser(pageable);
+        if (eTag != null) {
+            // Each selection, envelope and encoding is a different representation of the same cards.
+            if (selected != null) {
+                eTag += "." + selected;
+            }
+            if (ownerRefs) {
+                eTag += ".owner-refs";
+            }
+            eTag += encodingSuffix(webRequest);
+        }
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        PagedResponse<CardResponse> cards = PagedResponse.ofCards(selected != null
+                ? cardService.getCardsForCurrentUser(pageable, selected)
+                : cardService.getCardsForCurrentUser(pageable), ownerRefs);
+        return eTag != null ? ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(cards)
+                : ResponseEntity.ok(cards);
+    }
+
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CardBatchResponse> getMyCardsByIds(@RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(cardService.getCardsByIdsForCurrentUser(ids));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public SseEmitter streamMyCardChanges() {
+        return cardService.streamChangesForCurrentUser();
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<CardResponse> getCardById(@PathVariable UUID id) {
-        CardResponse card = cardService.getCardByIdForCurrentUser(id);
-        return ResponseEntity.ok(card);
+    public ResponseEntity<CardResponse> getCardById(@PathVariable UUID id, WebRequest webRequest) {
+        Long version = cardService.getCardVersionForCurrentUser(id);
+        String eTag = version != null ? id + "-" + version + encodingSuffix(webRequest) : null;
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        // At least the tagged version, so a stale cached copy is never sent under a newer tag.
+        CardResponse card = cardService.getCardViewForCurrentUser(id, version != null ? version : 0).toCardResponse();
+        return eTag != null ? ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(card)
+                : ResponseEntity.ok(card);
+    }
+
+    /**
+     * Tells the CBOR and Smile encodings of a document apart from the JSON one, which keeps the bare
+     * tag. Picks the most preferred type of the {@code Accept} header, as content negotiation does.
+     */
+    private static String encodingSuffix(WebRequest webRequest) {
+        MediaType preferred = null;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+                if (preferred == null || type.getQualityValue() > preferred.getQualityValue()) {
+                    preferred = type;
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // Content negotiation rejects the request once the handler returns.
+            return "";
+        }
+        if (preferred == null || preferred.isWildcardSubtype()) {
+            return "";
+        }
+        if (preferred.isCompatibleWith(CBOR)) {
+            return ".cbor";
+        }
+        return preferred.isCompatibleWith(SMILE) ? ".smile" : "";
+    }
+
+    @GetMapping("/{id}/balance")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CardBalanceResponse> getBalanceAsOf(
+            @PathVariable UUID id, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(cardService.getBalanceAsOfForCurrentUser(id, date));
     }
 
     @PatchMapping("/{id}/block")
@@ -62,4 +149,4 @@ public class CardController {
         cardService.transferFunds(transferRequest);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+}
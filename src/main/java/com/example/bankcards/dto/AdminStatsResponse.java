@@ -0,0 +1,13 @@
+package com.example.bankcards.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+public class AdminStatsResponse {
+    private Map<String, Long> cardsByStatus;
+    private BigDecimal totalBalance;
+    private long activeUsers;
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class BulkIssueJobResponse {
+    private UUID jobId;
+    private String status;
+    private int requested;
+    private int issued;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkIssueRequest {
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    public static class Item {
+        private UUID userId;
+        private int count;
+    }
+}
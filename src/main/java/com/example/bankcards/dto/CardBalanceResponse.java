@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBalanceResponse {
+    private UUID cardId;
+    private UUID userId;
+    private LocalDate snapshotDate;
+    private BigDecimal balance;
+    private String status;
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The cards asked for by id in one request, in the order they were asked for, and the ids that
+ * were not found.
+ */
+@Data
+public class CardBatchResponse {
+
+    /**
+     * The most ids one request may ask for.
+     */
+    public static final int MAX_IDS = 100;
+
+    private List<CardResponse> cards;
+    private List<UUID> missing;
+
+    /**
+     * Drops repeated ids, keeping the first occurrence.
+     *
+     * @throws IllegalArgumentException if there are no ids or more than {@link #MAX_IDS}
+     */
+    public static List<UUID> requestedIds(List<UUID> ids) {
+        List<UUID> requested = ids == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(ids));
+        if (requested.isEmpty() || requested.size() > MAX_IDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_IDS + " card ids can be requested at once.");
+        }
+        return requested;
+    }
+
+    public static CardBatchResponse of(List<UUID> requested, List<CardResponse> found) {
+        Map<UUID, CardResponse> byId = found.stream()
+                .collect(Collectors.toMap(CardResponse::getId, Function.identity(), (first, second) -> first));
+        CardBatchResponse response = new CardBatchResponse();
+        response.setCards(new ArrayList<>());
+        response.setMissing(new ArrayList<>());
+        for (UUID id : requested) {
+            CardResponse card = byId.get(id);
+            if (card != null) {
+                response.getCards().add(card);
+            } else {
+                response.getMissing().add(id);
+            }
+        }
+        return response;
+    }
+}
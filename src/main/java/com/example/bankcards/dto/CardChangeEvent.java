@@ -0,0 +1,17 @@
+package com.example.bankcards.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Payload of a {@code card} event on {@code GET /api/cards/stream}: the committed status and
+ * balance of one of the user's cards.
+ */
+@Value
+public class CardChangeEvent {
+    UUID cardId;
+    String status;
+    BigDecimal balance;
+}
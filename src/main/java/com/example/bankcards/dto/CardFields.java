@@ -0,0 +1,89 @@
+package com.example.bankcards.dto;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The fields of {@link CardResponse} a client selected with {@code fields=}, for example
+ * {@code fields=status,balance,owner.username}. Only the selected columns are read and only the
+ * selected fields are produced, so the card number is decrypted only when
+ * {@code cardNumberMasked} is asked for.
+ * <p>
+ * The card id is always included. {@code owner} selects every field of the owner, and any owner
+ * field brings the owner's id along so that owner references keep working.
+ */
+public final class CardFields {
+
+    public static final List<String> CARD = List.of("id", "cardNumberMasked", "expiryDate", "status", "balance");
+    public static final List<String> OWNER = List.of("id", "username", "role", "status");
+
+    private final Set<String> card = new LinkedHashSet<>();
+    private final Set<String> owner = new LinkedHashSet<>();
+
+    private CardFields() {
+    }
+
+    /**
+     * Parses a comma separated field list, or returns {@code null} when none is given.
+     *
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    public static CardFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        CardFields parsed = new CardFields();
+        parsed.card.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.equals("owner")) {
+                parsed.owner.addAll(OWNER);
+            } else if (name.startsWith("owner.") && OWNER.contains(name.substring("owner.".length()))) {
+                parsed.owner.add("id");
+                parsed.owner.add(name.substring("owner.".length()));
+            } else if (CARD.contains(name)) {
+                parsed.card.add(name);
+            } else {
+                throw new IllegalArgumentException("Unknown field '" + name + "'; cards have " + CARD
+                        + " and owner, owner." + String.join(", owner.", OWNER) + ".");
+            }
+        }
+        return parsed;
+    }
+
+    public boolean has(String field) {
+        return card.contains(field);
+    }
+
+    public boolean hasOwner() {
+        return !owner.isEmpty();
+    }
+
+    public boolean hasOwner(String field) {
+        return owner.contains(field);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CardFields fields && card.equals(fields.card) && owner.equals(fields.owner);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(card, owner);
+    }
+
+    /**
+     * The selected fields in canonical order, so that equal selections print the same.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        CARD.stream().filter(card::contains).forEach(joiner::add);
+        OWNER.stream().filter(owner::contains).forEach(field -> joiner.add("owner." + field));
+        return joiner.toString();
+    }
+}
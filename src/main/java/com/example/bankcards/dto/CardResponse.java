@@ -1,10 +1,16 @@
 package com.example.bankcards.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+/**
+ * A card as returned by the API. Fields left out by a {@code fields=} selection are {@code null}
+ * and are not serialized.
+ */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CardResponse {
     private UUID id;
     private String cardNumberMasked;
@@ -12,4 +18,9 @@ public class CardResponse {
     private String status;
     private BigDecimal balance;
     private UserResponse owner;
+
+    /**
+     * Set instead of {@link #owner} when the owners of a page are listed once in {@link PagedResponse}.
+     */
+    private UUID ownerId;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters of the admin card search; every filter is optional but at least one of {@code status}
+ * and {@code owner} must be given so the query can start from an index.
+ */
+@Data
+public class CardSearchRequest {
+    private CardStatus status;
+    private String owner;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiresFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiresTo;
+
+    private BigDecimal minBalance;
+    private BigDecimal maxBalance;
+}
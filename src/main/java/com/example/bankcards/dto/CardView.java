@@ -0,0 +1,57 @@
+package com.example.bankcards.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a mapped card, safe to share between requests. Carries the card and
+ * owner versions it was built from so a cached copy can be checked against the database.
+ */
+@Value
+public class CardView {
+    UUID id;
+    long version;
+    long ownerVersion;
+    String cardNumberMasked;
+    String expiryDate;
+    String status;
+    BigDecimal balance;
+    UUID ownerId;
+    String ownerUsername;
+    String ownerRole;
+    String ownerStatus;
+
+    public static CardView of(CardResponse response, long version, long ownerVersion) {
+        UserResponse owner = response.getOwner();
+        return new CardView(response.getId(), version, ownerVersion, response.getCardNumberMasked(),
+                response.getExpiryDate(), response.getStatus(), response.getBalance(),
+                owner != null ? owner.getId() : null,
+                owner != null ? owner.getUsername() : null,
+                owner != null ? owner.getRole() : null,
+                owner != null ? owner.getStatus() : null);
+    }
+
+    /**
+     * Builds a fresh response; callers are free to modify it.
+     */
+    public CardResponse toCardResponse() {
+        CardResponse response = new CardResponse();
+        response.setId(id);
+        response.setCardNumberMasked(cardNumberMasked);
+        response.setExpiryDate(expiryDate);
+        response.setStatus(status);
+        response.setBalance(balance);
+
+        if (ownerId != null) {
+            UserResponse owner = new UserResponse();
+            owner.setId(ownerId);
+            owner.setUsername(ownerUsername);
+            owner.setRole(ownerRole);
+            owner.setStatus(ownerStatus);
+            response.setOwner(owner);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One page of a list endpoint: the items and the paging numbers a client needs, without the
+ * pageable and sort objects Spring's {@link Page} would serialize.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PagedResponse<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    /**
+     * Owners of the cards on the page, each listed once, when the cards refer to them by
+     * {@code ownerId}; absent otherwise.
+     */
+    private List<UserResponse> owners;
+
+    public static <T> PagedResponse<T> of(Page<T> page) {
+        PagedResponse<T> response = new PagedResponse<>();
+        response.setContent(page.getContent());
+        response.setNumber(page.getNumber());
+        response.setSize(page.getSize());
+        response.setTotalElements(page.getTotalElements());
+        response.setTotalPages(page.getTotalPages());
+        return response;
+    }
+
+    /**
+     * Builds a page of cards. With {@code ownerRefs} every card carries only its owner's id and
+     * the owners are listed once for the whole page. The cards are copied rather than changed,
+     * since one page may be shared by coalesced requests.
+     */
+    public static PagedResponse<CardResponse> ofCards(Page<CardResponse> page, boolean ownerRefs) {
+        PagedResponse<CardResponse> response = of(page);
+        if (ownerRefs) {
+            Map<UUID, UserResponse> owners = new LinkedHashMap<>();
+            List<CardResponse> content = new ArrayList<>(page.getNumberOfElements());
+            for (CardResponse card : page) {
+                UserResponse owner = card.getOwner();
+                if (owner == null) {
+                    content.add(card);
+                    continue;
+                }
+                owners.putIfAbsent(owner.getId(), owner);
+                CardResponse reference = new CardResponse();
+                reference.setId(card.getId());
+                reference.setCardNumberMasked(card.getCardNumberMasked());
+                reference.setExpiryDate(card.getExpiryDate());
+                reference.setStatus(card.getStatus());
+                reference.setBalance(card.getBalance());
+                reference.setOwnerId(owner.getId());
+                content.add(reference);
+            }
+            response.setContent(content);
+            response.setOwners(new ArrayList<>(owners.values()));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+public class ReconciliationReport {
+    private UUID runId;
+    private String status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long cardsChecked;
+    private BigDecimal totalBalance;
+    private BigDecimal expectedTotal;
+    private long driftedCards;
+    private List<CardDrift> drifts = new ArrayList<>();
+    private Map<UUID, BigDecimal> userDrifts = new LinkedHashMap<>();
+    private String error;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CardDrift {
+        private UUID cardId;
+        private UUID userId;
+        private BigDecimal balance;
+        private BigDecimal expected;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.bankcards.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.util.UUID;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserResponse {
     private UUID id;
     private String username;
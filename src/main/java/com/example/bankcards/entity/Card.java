@@ -16,8 +16,9 @@ import java.util.UUID;
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    @JdbcTypeCode(SqlTypes.CHAR) // Add this to the foreign key
+    @UuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
     @Column(name = "card_number", nullable = false, unique = true)
@@ -33,9 +34,12 @@ public class Card {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
-    @JdbcTypeCode(SqlTypes.CHAR)
     private User owner;
 
     @PrePersist
@@ -14,8 +14,9 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    @JdbcTypeCode(SqlTypes.CHAR) // Add this to the foreign key
+    @UuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -37,4 +38,8 @@ public class User {
 
     @Column(name = "refresh_token")
     private String refreshToken;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.example.bankcards.repository;
+
+public interface CardOwnerVersionView extends CardVersionView {
+    Long getOwnerVersion();
+}
@@ -6,13 +6,40 @@ import com.example.bankcards.entity.CardStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface CardRepository extends JpaRepository<Card, UUID> {
+public interface CardRepository extends JpaRepository<Card, UUID>, CardSearchRepository {
     Page<Card> findByOwnerId(UUID ownerId, Pageable pageable);
     List<Card> findByExpiryDateBeforeAndStatusIs(LocalDate expiryDate, CardStatus status);
     Page<Card> findByOwnerIdAndStatusNot(UUID ownerId, CardStatus status, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("select c.version from Card c where c.id = :id and c.owner.username = :username and c.status <> :status")
+    Optional<Long> findVersionByIdAndOwnerUsernameAndStatusNot(@Param("id") UUID id,
+                                                               @Param("username") String username,
+                                                               @Param("status") CardStatus status);
+
+    @Query(value = "select c.id as id, c.version as version from Card c " +
+                   "where c.owner.username = :username and c.status <> :status",
+           countQuery = "select count(c) from Card c where c.owner.username = :username and c.status <> :status")
+    Page<CardVersionView> findVersionsByOwnerUsernameAndStatusNot(@Param("username") String username,
+                                                                  @Param("status") CardStatus status,
+                                                                  Pageable pageable);
+
+    @Query("select c from Card c join fetch c.owner o where c.id in :ids and o.username = :username and c.status <> :status")
+    List<Card> findWithOwnerByIdInAndOwnerUsernameAndStatusNot(@Param("ids") Collection<UUID> ids,
+                                                               @Param("username") String username,
+                                                               @Param("status") CardStatus status);
+
+    @Query("select c from Card c join fetch c.owner where c.id in :ids")
+    List<Card> findWithOwnerByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select c.id as id, c.version as version, c.owner.version as ownerVersion from Card c where c.id in :ids")
+    List<CardOwnerVersionView> findVersionsWithOwnerByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardFields;
+import com.example.bankcards.entity.Card;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface CardSearchRepository {
+
+    /**
+     * Returns the matching cards as rows built straight from the selected columns.
+     */
+    Page<CardSearchRow> search(Specification<Card> specification, Pageable pageable);
+
+    /**
+     * Returns the matching cards as tuples holding only the columns behind {@code fields}, the id
+     * and the sort properties, each aliased by its property name; owner columns are aliased
+     * {@code ownerId}, {@code ownerUsername}, {@code ownerRole} and {@code ownerStatus}. The owner
+     * is joined only when a field other than its id is selected.
+     */
+    Page<Tuple> findFields(Specification<Card> specification, CardFields fields, Pageable pageable);
+}
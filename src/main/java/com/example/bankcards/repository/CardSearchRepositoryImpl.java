@@ -0,0 +1,135 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardFields;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class CardSearchRepositoryImpl implements CardSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CardSearchRow> search(Specification<Card> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<CardSearchRow> query = builder.createQuery(CardSearchRow.class);
+        Root<Card> card = query.from(Card.class);
+        Path<User> owner = card.get("owner");
+        query.select(builder.construct(CardSearchRow.class,
+                        card.get("id"), card.get("cardNumber"), card.get("expiryDate"), card.get("status"),
+                        card.get("balance"), owner.get("id"), owner.get("username"), owner.get("role"),
+                        owner.get("status")))
+                .where(specification.toPredicate(card, query, builder))
+                .orderBy(orders(pageable.getSort(), card, builder));
+
+        List<CardSearchRow> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(rows, pageable, () -> {
+            CriteriaQuery<Long> count = builder.createQuery(Long.class);
+            Root<Card> counted = count.from(Card.class);
+            count.select(builder.count(counted)).where(specification.toPredicate(counted, count, builder));
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    @Override
+    public Page<Tuple> findFields(Specification<Card> specification, CardFields fields, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Card> card = query.from(Card.class);
+        Map<String, Selection<?>> columns = new LinkedHashMap<>();
+        columns.put("id", card.get("id").alias("id"));
+        if (fields.has("cardNumberMasked")) {
+            columns.put("cardNumber", card.get("cardNumber").alias("cardNumber"));
+        }
+        for (String property : List.of("expiryDate", "status", "balance")) {
+            if (fields.has(property)) {
+                columns.put(property, card.get(property).alias(property));
+            }
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            columns.computeIfAbsent(order.getProperty(), property -> path(card, property).alias(property));
+        }
+        if (fields.hasOwner()) {
+            Path<User> owner = card.get("owner");
+            columns.put("ownerId", owner.get("id").alias("ownerId"));
+            for (String property : List.of("username", "role", "status")) {
+                if (fields.hasOwner(property)) {
+                    String alias = "owner" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+                    columns.put(alias, owner.get(property).alias(alias));
+                }
+            }
+        }
+        query.multiselect(new ArrayList<>(columns.values())).orderBy(orders(pageable.getSort(), card, builder));
+        Predicate predicate = specification.toPredicate(card, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(rows, pageable, () -> {
+            CriteriaQuery<Long> count = builder.createQuery(Long.class);
+            Root<Card> counted = count.from(Card.class);
+            count.select(builder.count(counted));
+            Predicate countPredicate = specification.toPredicate(counted, count, builder);
+            if (countPredicate != null) {
+                count.where(countPredicate);
+            }
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    private static List<Order> orders(Sort sort, Root<Card> card, CriteriaBuilder builder) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> property = path(card, order.getProperty());
+            orders.add(order.isAscending() ? builder.asc(property) : builder.desc(property));
+        }
+        // Keeps pages stable when the sort keys tie.
+        orders.add(builder.asc(card.get("id")));
+        return orders;
+    }
+
+    /**
+     * Resolves a sort property such as {@code owner.username} the way Spring Data does for the
+     * repository's own queries; an unknown property fails with a {@link
+     * org.springframework.data.mapping.PropertyReferenceException}.
+     */
+    private static Path<?> path(Root<Card> card, String property) {
+        Path<?> path = card;
+        for (PropertyPath segment : PropertyPath.from(property, Card.class)) {
+            path = path.get(segment.getSegment());
+        }
+        return path;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.UserStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Columns of a card and its owner read by the admin search, without loading either entity. The
+ * card number is still encrypted.
+ */
+public record CardSearchRow(UUID id,
+                            String cardNumber,
+                            LocalDate expiryDate,
+                            CardStatus status,
+                            BigDecimal balance,
+                            UUID ownerId,
+                            String ownerUsername,
+                            Role ownerRole,
+                            UserStatus ownerStatus) {
+}
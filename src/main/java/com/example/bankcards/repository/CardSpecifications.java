@@ -0,0 +1,51 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Building blocks of the admin card search and of the card listings. Each one maps to a column
+ * covered by an index that starts with {@code status} or {@code user_id}.
+ */
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+    }
+
+    public static Specification<Card> hasStatus(CardStatus status) {
+        return (card, query, builder) -> builder.equal(card.get("status"), status);
+    }
+
+    public static Specification<Card> hasStatusNot(CardStatus status) {
+        return (card, query, builder) -> builder.notEqual(card.get("status"), status);
+    }
+
+    public static Specification<Card> ownedBy(String username) {
+        return (card, query, builder) -> builder.equal(card.get("owner").get("username"), username);
+    }
+
+    public static Specification<Card> ownedBy(UUID ownerId) {
+        return (card, query, builder) -> builder.equal(card.get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Card> expiresOnOrAfter(LocalDate date) {
+        return (card, query, builder) -> builder.greaterThanOrEqualTo(card.get("expiryDate"), date);
+    }
+
+    public static Specification<Card> expiresOnOrBefore(LocalDate date) {
+        return (card, query, builder) -> builder.lessThanOrEqualTo(card.get("expiryDate"), date);
+    }
+
+    public static Specification<Card> balanceAtLeast(BigDecimal amount) {
+        return (card, query, builder) -> builder.greaterThanOrEqualTo(card.get("balance"), amount);
+    }
+
+    public static Specification<Card> balanceAtMost(BigDecimal amount) {
+        return (card, query, builder) -> builder.lessThanOrEqualTo(card.get("balance"), amount);
+    }
+}
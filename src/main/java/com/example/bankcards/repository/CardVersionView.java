@@ -0,0 +1,8 @@
+package com.example.bankcards.repository;
+
+import java.util.UUID;
+
+public interface CardVersionView {
+    UUID getId();
+    Long getVersion();
+}
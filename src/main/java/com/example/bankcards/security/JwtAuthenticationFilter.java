@@ -1,8 +1,10 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.config.ShardTopology;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserStatus;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.ShardContext;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,16 +32,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
     private final UserRepository userRepository;
+    private final ShardTopology shardTopology;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        ShardContext.Scope shardScope = null;
         try {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
                 UUID userId = tokenProvider.getUserIdFromJWT(jwt); 
+                // The rest of the request works on the shard of the authenticated user.
+                shardScope = ShardContext.use(shardTopology.shardOf(userId));
 
                 User user = userRepository.findUserById(userId).orElse(null);
 
@@ -61,12 +67,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             try (PrintWriter writer = response.getWriter()) {
                 writer.write("{\"error\": \"" + ex.getReason() + "\"}");
             }
+            closeShardScope(shardScope);
             return;
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            closeShardScope(shardScope);
+        }
+    }
+
+    private static void closeShardScope(ShardContext.Scope shardScope) {
+        if (shardScope != null) {
+            shardScope.close();
+        }
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
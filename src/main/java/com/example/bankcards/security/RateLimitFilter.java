@@ -0,0 +1,151 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Per-route request limits, applied right after {@link JwtAuthenticationFilter} so requests can
+ * be keyed by the authenticated user.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next
+ * request (generic cell rate algorithm): a request is admitted when pushing that time forward by
+ * one emission interval stays within the burst allowance, which is one CAS on the hot path and
+ * needs no refill timer. Buckets live in a size-bounded cache that drops idle entries.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<Limit> limits;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        PathPatternParser parser = new PathPatternParser();
+        List<RateLimitProperties.Route> routes = properties.getRoutes();
+        this.limits = IntStream.range(0, routes.size())
+                .mapToObj(index -> new Limit(index, routes.get(index), parser.parse(routes.get(index).getPattern()), meterRegistry))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Limit limit = enabled ? findLimit(request) : null;
+        if (limit != null) {
+            AtomicLong bucket = buckets.get(limit.index + ":" + clientKey(limit, request), key -> new AtomicLong(Long.MIN_VALUE));
+            long waitNanos = limit.acquire(bucket, System.nanoTime());
+            if (waitNanos > 0) {
+                limit.rejected.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Limit findLimit(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Limit limit : limits) {
+            if ((limit.methods.isEmpty() || limit.methods.contains(request.getMethod())) && limit.pattern.matches(path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(Limit limit, HttpServletRequest request) {
+        if (limit.keyBy == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (PrintWriter writer = response.getWriter()) {
+            writer.write("{\"error\": \"Too many requests. Please retry later.\"}");
+        }
+    }
+
+    private static final class Limit {
+
+        private final int index;
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final RateLimitProperties.KeyType keyBy;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final Counter rejected;
+
+        private Limit(int index, RateLimitProperties.Route route, PathPattern pattern, MeterRegistry meterRegistry) {
+            if (route.getCapacity() < 1 || route.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit for " + route.getPattern()
+                        + " needs a positive capacity and refill rate");
+            }
+            this.index = index;
+            this.pattern = pattern;
+            this.methods = route.getMethods().stream().map(String::toUpperCase).collect(Collectors.toSet());
+            this.keyBy = route.getKeyBy();
+            this.emissionIntervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / route.getRefillPerSecond()));
+            this.burstToleranceNanos = emissionIntervalNanos * route.getCapacity();
+            this.rejected = meterRegistry.counter("bankcards.rate_limit.rejected", "route", route.getPattern());
+        }
+
+        /**
+         * Returns 0 when the request is admitted, otherwise how long until it would be.
+         */
+        private long acquire(AtomicLong bucket, long now) {
+            while (true) {
+                long arrival = bucket.get();
+                long next = Math.max(arrival, now) + emissionIntervalNanos;
+                long wait = next - now - burstToleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.AdminStatsResponse;
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBatchResponse;
+import com.example.bankcards.dto.CardFields;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardSearchRequest;
 import com.example.bankcards.dto.UserResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserStatus;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardMapper;
 import com.example.bankcards.util.UserMapper;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -20,93 +30,229 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("expiryDate", "balance");
+
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardMapper cardMapper; 
     private final UserMapper userMapper; 
-    
-    private User getCurrentAdmin() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Admin not found."));
+    private final CardViewCache cardViewCache;
+    private final AuditLog auditLog;
+    private final CardEventOutbox cardEventOutbox;
+    private final CardChangeBus cardChangeBus;
+    private final DashboardStats dashboardStats;
+    private final BalanceSnapshots balanceSnapshots;
+    private final ScatterGather scatterGather;
+    private final ShardTopology shardTopology;
+
+    /**
+     * The admin may live on another shard than the user it acts on, so it is recognised by name.
+     */
+    private boolean isCurrentAdmin(User user) {
+        return user.getUsername().equals(SecurityContextHolder.getContext().getAuthentication().getName());
     }
 
+    @SingleFlight
     public Page<CardResponse> getAllCards(Pageable pageable) {
-        Page<Card> cardsPage = cardRepository.findAll(pageable);
-        return cardsPage.map(this::mapToCardResponse);
+        return scatterGather.page(pageable, cardRepository::findAll, cardViewCache::toCardResponse);
     }
 
-    public Page<UserResponse> getAllUsers(Pageable pageable) {
-        Page<User> usersPage = userRepository.findAll(pageable);
-        return usersPage.map(this::mapToUserResponse);
+    /**
+     * Returns the cards among {@code ids} and the ids that do not exist. Ids are grouped by the
+     * shard they live on and each shard is read with one query.
+     */
+    public CardBatchResponse getCardsByIds(List<UUID> ids) {
+        List<UUID> requested = CardBatchResponse.requestedIds(ids);
+        Map<Integer, List<UUID>> idsByShard = requested.stream().collect(Collectors.groupingBy(shardTopology::shardOf));
+        List<CardResponse> cards = new ArrayList<>();
+        idsByShard.forEach((shard, shardIds) -> cards.addAll(scatterGather.read(shard,
+                () -> cardRepository.findWithOwnerByIdIn(shardIds).stream().map(cardViewCache::toCardResponse).toList())));
+        return CardBatchResponse.of(requested, cards);
     }
 
-    @Transactional
-    public UserResponse blockUser(UUID userId) {
-        User admin = getCurrentAdmin();
-        if (admin.getId().equals(userId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot block your own account.");
+    /**
+     * Lists all cards with only the selected fields, read as tuples instead of entities.
+     */
+    @SingleFlight
+    public Page<CardResponse> getAllCards(Pageable pageable, CardFields fields) {
+        return scatterGather.page(pageable, page -> cardRepository.findFields(Specification.where(null), fields, page),
+                row -> cardMapper.toCardResponse(row, fields));
+    }
+
+    /**
+     * Searches cards by the given filters. Status or owner is required so that every accepted
+     * combination is served by an index, and rows are read as projections instead of entities.
+     * Cards of one owner all live on the owner's shard, so only that shard is searched.
+     */
+    @SingleFlight
+    public Page<CardResponse> searchCards(CardSearchRequest request, Pageable pageable) {
+        Specification<Card> filters = searchFilters(request, pageable);
+        return searchShards(request, pageable, page -> cardRepository.search(filters, page),
+                cardMapper::toCardResponse);
+    }
+
+    /**
+     * Searches cards like {@link #searchCards(CardSearchRequest, Pageable)}, producing only the
+     * selected fields.
+     */
+    @SingleFlight
+    public Page<CardResponse> searchCards(CardSearchRequest request, Pageable pageable, CardFields fields) {
+        Specification<Card> filters = searchFilters(request, pageable);
+        return searchShards(request, pageable, page -> cardRepository.findFields(filters, fields, page),
+                row -> cardMapper.toCardResponse(row, fields));
+    }
+
+    private Specification<Card> searchFilters(CardSearchRequest request, Pageable pageable) {
+        if (request.getStatus() == null && (request.getOwner() == null || request.getOwner().isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Filter by status or owner is required.");
+        }
+        if (request.getExpiresFrom() != null && request.getExpiresTo() != null
+                && request.getExpiresFrom().isAfter(request.getExpiresTo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "expiresFrom must not be after expiresTo.");
+        }
+        if (request.getMinBalance() != null && request.getMaxBalance() != null
+                && request.getMinBalance().compareTo(request.getMaxBalance()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minBalance must not exceed maxBalance.");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Search results can only be sorted by " + SEARCH_SORT_PROPERTIES + ".");
+            }
         }
 
+        Specification<Card> specification = Specification.where(null);
+        if (request.getStatus() != null) {
+            specification = specification.and(CardSpecifications.hasStatus(request.getStatus()));
+        }
+        if (request.getOwner() != null && !request.getOwner().isBlank()) {
+            specification = specification.and(CardSpecifications.ownedBy(request.getOwner()));
+        }
+        if (request.getExpiresFrom() != null) {
+            specification = specification.and(CardSpecifications.expiresOnOrAfter(request.getExpiresFrom()));
+        }
+        if (request.getExpiresTo() != null) {
+            specification = specification.and(CardSpecifications.expiresOnOrBefore(request.getExpiresTo()));
+        }
+        if (request.getMinBalance() != null) {
+            specification = specification.and(CardSpecifications.balanceAtLeast(request.getMinBalance()));
+        }
+        if (request.getMaxBalance() != null) {
+            specification = specification.and(CardSpecifications.balanceAtMost(request.getMaxBalance()));
+        }
+        return specification;
+    }
+
+    private <E> Page<CardResponse> searchShards(CardSearchRequest request, Pageable pageable,
+                                                Function<Pageable, Page<E>> query, Function<E, CardResponse> mapper) {
+        if (request.getOwner() != null && !request.getOwner().isBlank()) {
+            return scatterGather.read(shardTopology.shardOf(request.getOwner()), () -> query.apply(pageable).map(mapper));
+        }
+        return scatterGather.page(pageable, query, mapper);
+    }
+
+    public AdminStatsResponse getStats() {
+        return dashboardStats.snapshot();
+    }
+
+    public CardBalanceResponse getCardBalanceAsOf(@ShardKey UUID cardId, LocalDate date) {
+        return balanceSnapshots.getAsOf(cardId, date);
+    }
+
+    @SingleFlight
+    public Page<UserResponse> getAllUsers(Pageable pageable) {
+        return scatterGather.page(pageable, userRepository::findAll, this::mapToUserResponse);
+    }
+
+    @Transactional
+    @RetryOnOptimisticLock
+    public UserResponse blockUser(@ShardKey UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        if (isCurrentAdmin(user)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot block your own account.");
+        }
 
         if (user.getStatus() == UserStatus.BLOCKED) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already blocked.");
         }
 
+        if (user.getStatus() == UserStatus.ACTIVE) {
+            dashboardStats.activeUsersChanged(-1);
+        }
         user.setStatus(UserStatus.BLOCKED);
+        cardViewCache.invalidateOwnerAfterCommit(user);
+        auditLog.record(AuditLog.Action.USER_BLOCKED, userId);
+        cardChangeBus.disconnectAfterCommit(userId);
         User savedUser = userRepository.save(user);
         return mapToUserResponse(savedUser);
     }
 
     @Transactional
-    public UserResponse activateUser(UUID userId) {
-        User admin = getCurrentAdmin();
-        if (admin.getId().equals(userId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot activate your own account.");
-        }
-
+    @RetryOnOptimisticLock
+    public UserResponse activateUser(@ShardKey UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        if (isCurrentAdmin(user)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot activate your own account.");
+        }
 
         if (user.getStatus() == UserStatus.ACTIVE) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already active.");
         }
 
         user.setStatus(UserStatus.ACTIVE);
+        dashboardStats.activeUsersChanged(1);
+        cardViewCache.invalidateOwnerAfterCommit(user);
+        auditLog.record(AuditLog.Action.USER_ACTIVATED, userId);
         User savedUser = userRepository.save(user);
         return mapToUserResponse(savedUser);
     }
 
     @Transactional
-    public void deleteUser(UUID userId) {
-        User admin = getCurrentAdmin();
-        if (admin.getId().equals(userId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot delete your own account.");
-        }
-
+    public void deleteUser(@ShardKey UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        if (isCurrentAdmin(user)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot delete your own account.");
+        }
 
         if (user.getCards() != null) {
             for (Card card : user.getCards()) {
+                dashboardStats.cardStatusChanged(card.getStatus(), CardStatus.DELETED, 1);
                 card.setStatus(CardStatus.DELETED);
+                cardViewCache.invalidateAfterCommit(card);
+                cardChangeBus.publishAfterCommit(card);
                 cardRepository.save(card);
             }
+            cardEventOutbox.cardsChanged(OutboxEvent.Type.CARD_DELETED, user.getCards());
+        }
+        if (user.getStatus() == UserStatus.ACTIVE) {
+            dashboardStats.activeUsersChanged(-1);
         }
         user.setStatus(UserStatus.DELETED);
+        cardViewCache.invalidateOwnerAfterCommit(user);
+        auditLog.record(AuditLog.Action.USER_DELETED, userId);
+        cardChangeBus.disconnectAfterCommit(userId);
         userRepository.save(user);
     }
 
     @Transactional
-    public CardResponse blockCard(UUID cardId) {
+    @RetryOnOptimisticLock
+    public CardResponse blockCard(@ShardKey UUID cardId) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found"));
 
@@ -114,13 +260,19 @@ public class AdminService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card is already blocked or expired.");
         }
 
+        dashboardStats.cardStatusChanged(card.getStatus(), CardStatus.BLOCKED, 1);
         card.setStatus(CardStatus.BLOCKED);
+        cardViewCache.invalidateAfterCommit(card);
+        auditLog.record(AuditLog.Action.CARD_BLOCKED, cardId);
+        cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_BLOCKED, card);
+        cardChangeBus.publishAfterCommit(card);
         Card savedCard = cardRepository.save(card);
         return mapToCardResponse(savedCard);
     }
 
     @Transactional
-    public CardResponse activateCard(UUID cardId) {
+    @RetryOnOptimisticLock
+    public CardResponse activateCard(@ShardKey UUID cardId) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found"));
 
@@ -132,13 +284,18 @@ public class AdminService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card is already active.");
         }
 
+        dashboardStats.cardStatusChanged(card.getStatus(), CardStatus.ACTIVE, 1);
         card.setStatus(CardStatus.ACTIVE);
+        cardViewCache.invalidateAfterCommit(card);
+        auditLog.record(AuditLog.Action.CARD_ACTIVATED, cardId);
+        cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_ACTIVATED, card);
+        cardChangeBus.publishAfterCommit(card);
         Card savedCard = cardRepository.save(card);
         return mapToCardResponse(savedCard);
     }
 
     @Transactional
-    public void deleteCard(UUID cardId) {
+    public void deleteCard(@ShardKey UUID cardId) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found"));
 
@@ -147,14 +304,31 @@ public class AdminService {
         }
 
         cardRepository.deleteById(cardId);
+        dashboardStats.cardRemoved(card);
+        cardViewCache.evictAfterCommit(cardId);
+        auditLog.record(AuditLog.Action.CARD_DELETED, cardId);
+        cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_DELETED, card);
+        cardChangeBus.publishRemovedAfterCommit(card);
     }
 
-    public Page<CardResponse> getCardsByUserId(UUID userId, Pageable pageable) {
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public Page<CardResponse> getCardsByUserId(@ShardKey UUID userId, Pageable pageable) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         Page<Card> cardsPage = cardRepository.findByOwnerId(userId, pageable);
-        return cardsPage.map(this::mapToCardResponse);
+        return cardsPage.map(cardViewCache::toCardResponse);
+    }
+
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public Page<CardResponse> getCardsByUserId(@ShardKey UUID userId, Pageable pageable, CardFields fields) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Page<Tuple> rows = cardRepository.findFields(CardSpecifications.ownedBy(userId), fields, pageable);
+        return rows.map(row -> cardMapper.toCardResponse(row, fields));
     }
 
 
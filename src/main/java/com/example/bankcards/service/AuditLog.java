@@ -0,0 +1,246 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.AuditProperties;
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.TransactionHooks;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records admin actions and card status changes in the {@code audit_log} table without adding
+ * an insert to the request.
+ * <p>
+ * Events are queued once the surrounding transaction commits and a background writer inserts
+ * them in JDBC batches of up to {@code audit.batch-size} rows, waiting at most
+ * {@code audit.flush-interval} for a batch to fill. When the queue is full a publisher waits up
+ * to {@code audit.offer-timeout} and then writes its event itself, so overload slows callers down
+ * instead of losing events. That write runs in a transaction of its own: the committed transaction
+ * it follows still holds the connection and would never commit the insert. On shutdown the writer
+ * stops after the web server and everything still queued is written.
+ */
+@Component
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+    private static final String INSERT_SQL = "INSERT INTO audit_log "
+            + "(id, occurred_at, actor, action, target_type, target_id, details) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int WRITE_ATTEMPTS = 3;
+    // Upper bound on a single wait so the writer notices shutdown promptly.
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public enum Action {
+        CARD_CREATED("CARD"),
+        CARD_BLOCKED("CARD"),
+        CARD_ACTIVATED("CARD"),
+        CARD_EXPIRED("CARD"),
+        CARD_DELETED("CARD"),
+        USER_BLOCKED("USER"),
+        USER_ACTIVATED("USER"),
+        USER_DELETED("USER"),
+        CARDS_BULK_ISSUED("USER"),
+        USERS_IMPORTED("USER");
+
+        private final String targetType;
+
+        Action(String targetType) {
+            this.targetType = targetType;
+        }
+    }
+
+    record Event(UUID id, Instant occurredAt, String actor, Action action, UUID targetId, String details) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final BlockingQueue<Event> queue;
+    private final Counter written;
+    private final Counter writtenByPublisher;
+    private final Counter failed;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    PlatformTransactionManager transactionManager,
+                    AuditProperties properties,
+                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.written = meterRegistry.counter("bankcards.audit.events", "result", "written");
+        this.writtenByPublisher = meterRegistry.counter("bankcards.audit.events", "result", "written_by_publisher");
+        this.failed = meterRegistry.counter("bankcards.audit.events", "result", "failed");
+        Gauge.builder("bankcards.audit.queue_size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public void record(Action action, UUID targetId) {
+        record(action, targetId, null);
+    }
+
+    /**
+     * Captures the event now and queues it once the current transaction commits; nothing is
+     * recorded for rolled back changes.
+     */
+    public void record(Action action, UUID targetId, String details) {
+        Event event = new Event(UuidV7Generator.generate(), Instant.now(), currentActor(), action, targetId, details);
+        TransactionHooks.afterCommit(() -> publish(event));
+    }
+
+    void publish(Event event) {
+        if (running) {
+            try {
+                if (queue.offer(event, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (write(List.of(event))) {
+            writtenByPublisher.increment();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainQueue, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<Event> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            writeBatch(remaining);
+            remaining.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server so that requests finishing during a graceful shutdown are
+     * still recorded.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainQueue() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Event first = queue.poll(Math.min(flushIntervalNanos, MAX_POLL_NANOS), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && running) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Event next = queue.poll(Math.min(remaining, MAX_POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Event> batch) {
+        if (!batch.isEmpty() && write(batch)) {
+            written.increment(batch.size());
+        }
+    }
+
+    private boolean write(List<Event> events) {
+        for (int attempt = 1; ; attempt++) {
+            // The audit log is not keyed by user and is kept whole on the first shard.
+            try (ShardContext.Scope ignored = ShardContext.use(0)) {
+                writeTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+                            statement.setBytes(1, UuidBytes.toBytes(event.id()));
+                            statement.setTimestamp(2, Timestamp.from(event.occurredAt()));
+                            statement.setString(3, event.actor());
+                            statement.setString(4, event.action().name());
+                            statement.setString(5, event.action().targetType);
+                            statement.setBytes(6, UuidBytes.toBytes(event.targetId()));
+                            statement.setString(7, event.details());
+                        }));
+                return true;
+            } catch (RuntimeException ex) {
+                if (attempt >= WRITE_ATTEMPTS) {
+                    failed.increment(events.size());
+                    logger.error("Could not write {} audit events, first: {}", events.size(), events.get(0), ex);
+                    return false;
+                }
+                logger.warn("Writing {} audit events failed, retrying: {}", events.size(), ex.getMessage());
+            }
+        }
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+}
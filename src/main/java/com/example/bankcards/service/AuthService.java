@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ShardTopology;
 import com.example.bankcards.dto.JwtResponse;
 import com.example.bankcards.dto.LoginRequest;
 import com.example.bankcards.dto.RegisterRequest;
@@ -8,6 +9,7 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserStatus;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.util.ShardContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -28,9 +30,11 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final DashboardStats dashboardStats;
+    private final ShardTopology shardTopology;
 
     @Transactional
-    public User registerUser(RegisterRequest registerRequest) {
+    public User registerUser(@ShardKey("username") RegisterRequest registerRequest) {
         if (userRepository.findByUsername(registerRequest.getUsername()).isPresent()) {
             throw new IllegalArgumentException("Username is already taken!");
         }
@@ -45,11 +49,14 @@ public class AuthService {
         user.setRole(Role.USER);
         user.setStatus(UserStatus.ACTIVE);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        dashboardStats.activeUsersChanged(1);
+        return savedUser;
     }
 
     @Transactional
-    public JwtResponse authenticateUser(LoginRequest loginRequest) {
+    @RetryOnOptimisticLock
+    public JwtResponse authenticateUser(@ShardKey("username") LoginRequest loginRequest) {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(),
@@ -80,7 +87,7 @@ public class AuthService {
         }
 
         UUID userId = tokenProvider.getUserIdFromJWT(refreshToken);
-        User user = userRepository.findUserById(userId)
+        User user = ShardContext.callOn(shardTopology.shardOf(userId), () -> userRepository.findUserById(userId))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
 
         if (user.getRefreshToken() == null || !user.getRefreshToken().equals(refreshToken)) {
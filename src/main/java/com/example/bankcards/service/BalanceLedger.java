@@ -0,0 +1,70 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records every change of a card balance as a signed entry in {@code balance_ledger}, in the same
+ * transaction as the change. The sum of a card's entries is the balance the card is expected to
+ * have, which {@link BalanceReconciler} checks against {@code cards.balance}.
+ */
+@Component
+public class BalanceLedger {
+
+    public enum EntryType {
+        OPENING,
+        ISSUED,
+        TRANSFER_OUT,
+        TRANSFER_IN
+    }
+
+    private record Entry(UUID cardId, EntryType type, BigDecimal amount) {
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO balance_ledger "
+            + "(id, card_id, entry_type, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BalanceLedger(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardsIssued(Collection<Card> cards) {
+        append(cards.stream().map(card -> new Entry(card.getId(), EntryType.ISSUED, card.getBalance())).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transferred(Card source, Card destination, BigDecimal amount) {
+        append(List.of(
+                new Entry(source.getId(), EntryType.TRANSFER_OUT, amount.negate()),
+                new Entry(destination.getId(), EntryType.TRANSFER_IN, amount)));
+    }
+
+    private void append(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setBytes(1, UuidBytes.toBytes(UuidV7Generator.generate()));
+            statement.setBytes(2, UuidBytes.toBytes(entry.cardId()));
+            statement.setString(3, entry.type().name());
+            statement.setBigDecimal(4, entry.amount());
+            statement.setTimestamp(5, now);
+        });
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ReconciliationProperties;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks that every card balance equals the sum of its {@link BalanceLedger} entries and reports
+ * the cards, users and global totals that disagree.
+ * <p>
+ * The job walks {@code cards} in primary key order: one thread reads the next chunk of ids by
+ * keyset, and a fork-join pool checks each chunk with a single statement that reads the balances
+ * and the ledger sums together, so a transfer committing mid-run is seen either completely or not
+ * at all. Every statement is a plain read that takes no locks, at most two chunks per worker are in
+ * flight, and only totals and the capped drift lists are kept, so the run neither blocks writers
+ * nor grows with the table.
+ */
+@Component
+@EnableConfigurationProperties(ReconciliationProperties.class)
+public class BalanceReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceReconciler.class);
+    private static final String CHECK_SQL = "SELECT c.id, c.user_id, c.balance, "
+            + "COALESCE(SUM(l.amount), 0) AS expected FROM cards c LEFT JOIN balance_ledger l ON l.card_id = c.id "
+            + "WHERE c.id >= ? AND c.id <= ? GROUP BY c.id, c.user_id, c.balance";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTopology shardTopology;
+    private final Executor jobRunner;
+    private final ForkJoinPool checkPool;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int maxReportedDrifts;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReport latest;
+
+    @Autowired
+    public BalanceReconciler(JdbcTemplate jdbcTemplate,
+                             ShardTopology shardTopology,
+                             ReconciliationProperties properties,
+                             MeterRegistry meterRegistry) {
+        this(jdbcTemplate, shardTopology, properties, meterRegistry, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    BalanceReconciler(JdbcTemplate jdbcTemplate,
+                      ShardTopology shardTopology,
+                      ReconciliationProperties properties,
+                      MeterRegistry meterRegistry,
+                      Executor jobRunner) {
+        if (properties.getChunkSize() < 1) {
+            throw new IllegalArgumentException("Reconciliation chunk size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardTopology = shardTopology;
+        this.jobRunner = jobRunner;
+        this.parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.checkPool = new ForkJoinPool(parallelism);
+        this.chunkSize = properties.getChunkSize();
+        this.maxReportedDrifts = properties.getMaxReportedDrifts();
+        Gauge.builder("bankcards.reconciliation.drifted_cards", this,
+                        reconciler -> reconciler.latest != null ? reconciler.latest.getDriftedCards() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a run in the background and returns its initial state.
+     */
+    public ReconciliationReport start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A reconciliation is already running.");
+        }
+        ReconciliationReport report = newReport();
+        latest = report;
+        jobRunner.execute(() -> run(report));
+        return report;
+    }
+
+    public ReconciliationReport getLatest() {
+        ReconciliationReport report = latest;
+        if (report == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No reconciliation has run on this node yet.");
+        }
+        return report;
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        ReconciliationReport report = newReport();
+        latest = report;
+        run(report);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (jobRunner instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        checkPool.shutdownNow();
+    }
+
+    private void run(ReconciliationReport started) {
+        Totals totals = new Totals(maxReportedDrifts);
+        try {
+            shardTopology.forEachShard(() -> scan(totals));
+            latest = totals.toReport(started, "COMPLETED", null);
+            if (totals.driftedCards > 0) {
+                logger.error("Reconciliation {} found {} cards whose balance differs from the ledger",
+                        started.getRunId(), totals.driftedCards);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Reconciliation {} failed", started.getRunId(), ex);
+            latest = totals.toReport(started, "FAILED", ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void scan(Totals totals) {
+        int maxInFlight = parallelism * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        int shard = ShardContext.currentShard();
+        byte[] after = null;
+        try {
+            while (failure.get() == null) {
+                List<byte[]> ids = after == null
+                        ? jdbcTemplate.queryForList("SELECT id FROM cards ORDER BY id LIMIT ?", byte[].class, chunkSize)
+                        : jdbcTemplate.queryForList("SELECT id FROM cards WHERE id > ? ORDER BY id LIMIT ?",
+                                byte[].class, after, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                byte[] from = ids.get(0);
+                byte[] to = ids.get(ids.size() - 1);
+                inFlight.acquire();
+                checkPool.execute(() -> {
+                    try {
+                        ShardContext.runOn(shard, () -> check(from, to, totals));
+                    } catch (RuntimeException ex) {
+                        failure.compareAndSet(null, ex);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                after = to;
+            }
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation was interrupted", ex);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void check(byte[] from, byte[] to, Totals totals) {
+        Totals chunk = new Totals(maxReportedDrifts);
+        jdbcTemplate.query(CHECK_SQL, rs -> {
+            BigDecimal balance = rs.getBigDecimal("balance");
+            BigDecimal expected = rs.getBigDecimal("expected");
+            chunk.add(new ReconciliationReport.CardDrift(UuidBytes.fromBytes(rs.getBytes("id")),
+                    UuidBytes.fromBytes(rs.getBytes("user_id")), balance, expected));
+        }, from, to);
+        totals.merge(chunk);
+    }
+
+    private static ReconciliationReport newReport() {
+        ReconciliationReport report = new ReconciliationReport();
+        report.setRunId(UuidV7Generator.generate());
+        report.setStatus("RUNNING");
+        report.setStartedAt(Instant.now());
+        return report;
+    }
+
+    /**
+     * Running sums of one chunk or of the whole run. Only drifted cards and their owners are kept,
+     * up to the cap.
+     */
+    private static final class Totals {
+
+        private final int maxReportedDrifts;
+        private final List<ReconciliationReport.CardDrift> drifts = new ArrayList<>();
+        private final Map<UUID, BigDecimal> userDrifts = new LinkedHashMap<>();
+        private long cardsChecked;
+        private long driftedCards;
+        private BigDecimal totalBalance = BigDecimal.ZERO;
+        private BigDecimal expectedTotal = BigDecimal.ZERO;
+
+        private Totals(int maxReportedDrifts) {
+            this.maxReportedDrifts = maxReportedDrifts;
+        }
+
+        private void add(ReconciliationReport.CardDrift card) {
+            cardsChecked++;
+            totalBalance = totalBalance.add(card.getBalance());
+            expectedTotal = expectedTotal.add(card.getExpected());
+            if (card.getBalance().compareTo(card.getExpected()) != 0) {
+                driftedCards++;
+                addCard(card);
+                addUser(card.getUserId(), card.getBalance().subtract(card.getExpected()));
+            }
+        }
+
+        private synchronized void merge(Totals chunk) {
+            cardsChecked += chunk.cardsChecked;
+            driftedCards += chunk.driftedCards;
+            totalBalance = totalBalance.add(chunk.totalBalance);
+            expectedTotal = expectedTotal.add(chunk.expectedTotal);
+            chunk.drifts.forEach(this::addCard);
+            chunk.userDrifts.forEach(this::addUser);
+        }
+
+        private void addCard(ReconciliationReport.CardDrift card) {
+            if (drifts.size() < maxReportedDrifts) {
+                drifts.add(card);
+            }
+        }
+
+        private void addUser(UUID userId, BigDecimal difference) {
+            if (userDrifts.containsKey(userId) || userDrifts.size() < maxReportedDrifts) {
+                userDrifts.merge(userId, difference, BigDecimal::add);
+            }
+        }
+
+        private synchronized ReconciliationReport toReport(ReconciliationReport started, String status, String error) {
+            ReconciliationReport report = new ReconciliationReport();
+            report.setRunId(started.getRunId());
+            report.setStartedAt(started.getStartedAt());
+            report.setFinishedAt(Instant.now());
+            report.setStatus(status);
+            report.setError(error);
+            report.setCardsChecked(cardsChecked);
+            report.setDriftedCards(driftedCards);
+            report.setTotalBalance(totalBalance);
+            report.setExpectedTotal(expectedTotal);
+            report.setDrifts(new ArrayList<>(drifts));
+            report.setUserDrifts(new LinkedHashMap<>(userDrifts));
+            return report;
+        }
+    }
+}
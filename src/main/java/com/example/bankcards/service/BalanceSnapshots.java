@@ -0,0 +1,169 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.BalanceSnapshotProperties;
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.util.UuidBytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records the balance and status of every card into {@code card_balance_snapshots} once a day, so
+ * the balance a card had at the end of a past day can be read back.
+ * <p>
+ * The copy is a series of set-based {@code INSERT ... SELECT} statements, each taking the next
+ * chunk of cards in primary key order, so rows never pass through the application. The snapshot
+ * table is keyed by date first, so every statement appends to the end of its index. Chunks run at
+ * {@code READ COMMITTED}, where InnoDB reads the source rows without locking them, and commit
+ * independently; a run that stops half way resumes after the last card already copied for that
+ * day. On MySQL the table is partitioned by month and the job adds partitions ahead of the dates
+ * it writes.
+ * <p>
+ * Since the chunks see the cards as they are when each one runs, the balance is not copied from
+ * {@code cards} but summed from the {@code balance_ledger} entries made before the day ended, and
+ * cards without such entries did not exist yet and are skipped. Statuses have no history; a card
+ * expired after the day ended is recorded as active, and other status changes made since then
+ * show through.
+ */
+@Component
+@EnableConfigurationProperties(BalanceSnapshotProperties.class)
+public class BalanceSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceSnapshots.class);
+    private static final String COPY_COLUMNS = "INSERT INTO card_balance_snapshots "
+            + "(card_id, snapshot_date, user_id, balance, status) "
+            + "SELECT c.id, ?, c.user_id, SUM(l.amount), "
+            + "CASE WHEN c.status = 'EXPIRED' AND c.expiry_date >= ? THEN 'ACTIVE' ELSE c.status END "
+            + "FROM cards c JOIN balance_ledger l ON l.card_id = c.id AND l.created_at < ? ";
+    private static final String COPY_GROUP = "GROUP BY c.id, c.user_id, c.status, c.expiry_date ORDER BY c.id LIMIT ?";
+    private static final String COPY_FIRST_SQL = COPY_COLUMNS + COPY_GROUP;
+    private static final String COPY_NEXT_SQL = COPY_COLUMNS + "WHERE c.id > ? " + COPY_GROUP;
+    private static final String SELECT_LATEST_SQL = "SELECT card_id, snapshot_date, user_id, balance, status "
+            + "FROM card_balance_snapshots WHERE card_id = ? AND snapshot_date <= ? "
+            + "ORDER BY snapshot_date DESC LIMIT 1";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final boolean managePartitions;
+
+    public BalanceSnapshots(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            BalanceSnapshotProperties properties) {
+        if (properties.getChunkSize() < 1) {
+            throw new IllegalArgumentException("Balance snapshot chunk size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.chunkSize = properties.getChunkSize();
+        this.managePartitions = properties.isManagePartitions();
+    }
+
+    /**
+     * Records the closing balances of the day that has just ended. Runs after midnight, once the
+     * expiry job has finished.
+     */
+    @Scheduled(cron = "${balance-snapshots.cron:0 15 0 * * *}")
+    @ForEachShard
+    public void takeNightly() {
+        snapshot(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Copies every card not yet recorded for {@code date} and returns how many were copied.
+     */
+    public long snapshot(LocalDate date) {
+        long started = System.nanoTime();
+        if (managePartitions) {
+            ensurePartition(date.withDayOfMonth(1));
+            ensurePartition(date.withDayOfMonth(1).plusMonths(1));
+        }
+        Date sqlDate = Date.valueOf(date);
+        Timestamp dayEnd = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+        byte[] after = lastCopied(sqlDate);
+        long copied = 0;
+        while (true) {
+            byte[] lowerBound = after;
+            Integer inserted = chunkTransaction.execute(status -> lowerBound == null
+                    ? jdbcTemplate.update(COPY_FIRST_SQL, sqlDate, sqlDate, dayEnd, chunkSize)
+                    : jdbcTemplate.update(COPY_NEXT_SQL, sqlDate, sqlDate, dayEnd, lowerBound, chunkSize));
+            copied += inserted;
+            if (inserted < chunkSize) {
+                break;
+            }
+            after = lastCopied(sqlDate);
+        }
+        logger.info("Balance snapshot for {} copied {} cards in {}", date, copied,
+                Duration.ofNanos(System.nanoTime() - started));
+        return copied;
+    }
+
+    /**
+     * Returns the card as recorded by its latest snapshot taken on or before {@code date}, read
+     * with one probe of the {@code (card_id, snapshot_date)} index. Looking up the card's own
+     * snapshots rather than the latest day means a run still in progress or stopped half way does
+     * not hide older snapshots of the cards it has not reached. Days that have not ended yet have
+     * no snapshot, so the date must be in the past.
+     */
+    public CardBalanceResponse getAsOf(UUID cardId, LocalDate date) {
+        if (date == null || !date.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The date must be in the past; the current balance is on the card itself.");
+        }
+        List<CardBalanceResponse> rows = jdbcTemplate.query(SELECT_LATEST_SQL,
+                (rs, rowNum) -> new CardBalanceResponse(
+                        UuidBytes.fromBytes(rs.getBytes("card_id")),
+                        UuidBytes.fromBytes(rs.getBytes("user_id")),
+                        rs.getDate("snapshot_date").toLocalDate(),
+                        rs.getBigDecimal("balance"),
+                        rs.getString("status")),
+                UuidBytes.toBytes(cardId), Date.valueOf(date));
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No balance recorded for the card on " + date + ".");
+        }
+        return rows.get(0);
+    }
+
+    private byte[] lastCopied(Date snapshotDate) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(card_id) FROM card_balance_snapshots WHERE snapshot_date = ?", byte[].class, snapshotDate);
+    }
+
+    /**
+     * Splits the catch-all partition so that {@code month} gets its own. Called ahead of time, the
+     * catch-all is still empty and the split only changes metadata.
+     */
+    private void ensurePartition(LocalDate month) {
+        String name = month.format(PARTITION_NAME);
+        // Range bounds of date columns are reported as quoted ISO dates, which sort as strings.
+        Integer covering = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.partitions "
+                + "WHERE table_schema = DATABASE() AND table_name = 'card_balance_snapshots' "
+                + "AND partition_name <> 'p_future' AND partition_description >= ?", Integer.class,
+                "'" + month.plusMonths(1) + "'");
+        if (covering != null && covering > 0) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE card_balance_snapshots REORGANIZE PARTITION p_future INTO ("
+                + "PARTITION " + name + " VALUES LESS THAN ('" + month.plusMonths(1) + "'), "
+                + "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+        logger.info("Added balance snapshot partition {}", name);
+    }
+}
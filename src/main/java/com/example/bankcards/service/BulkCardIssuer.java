@@ -0,0 +1,290 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.BulkIssueProperties;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.BulkIssueJobResponse;
+import com.example.bankcards.dto.BulkIssueRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.DataGenerator;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Issues many cards for given users as a background job whose progress can be polled.
+ * <p>
+ * Cards bypass the persistence context: card numbers come from {@link PanAllocator} and are
+ * encrypted on a dedicated pool while the previous batch is being written, and every batch is
+ * inserted with a JDBC batch (sent as multi-row inserts by the MySQL driver) together with its
+ * outbox events in one transaction. Batches commit independently, so a failed job keeps the cards
+ * issued before the failure and reports how many there are. Jobs run one at a time and their state
+ * lives on the node that accepted them.
+ */
+@Component
+@EnableConfigurationProperties(BulkIssueProperties.class)
+public class BulkCardIssuer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkCardIssuer.class);
+    private static final String INSERT_SQL = "INSERT INTO cards "
+            + "(id, card_number, expiry_date, status, balance, version, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UserRepository userRepository;
+    private final ShardTopology shardTopology;
+    private final PanAllocator panAllocator;
+    private final CardEventOutbox cardEventOutbox;
+    private final DashboardStats dashboardStats;
+    private final BalanceLedger balanceLedger;
+    private final AuditLog auditLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor jobRunner;
+    private final ForkJoinPool encryptionPool;
+    private final int batchSize;
+    private final int maxCardsPerJob;
+    private final Cache<UUID, Job> jobs;
+
+    @Autowired
+    public BulkCardIssuer(UserRepository userRepository,
+                          ShardTopology shardTopology,
+                          PanAllocator panAllocator,
+                          CardEventOutbox cardEventOutbox,
+                          DashboardStats dashboardStats,
+                          BalanceLedger balanceLedger,
+                          AuditLog auditLog,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          BulkIssueProperties properties) {
+        this(userRepository, shardTopology, panAllocator, cardEventOutbox, dashboardStats, balanceLedger, auditLog,
+                jdbcTemplate, transactionManager, properties,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-issue");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    BulkCardIssuer(UserRepository userRepository,
+                   ShardTopology shardTopology,
+                   PanAllocator panAllocator,
+                   CardEventOutbox cardEventOutbox,
+                   DashboardStats dashboardStats,
+                   BalanceLedger balanceLedger,
+                   AuditLog auditLog,
+                   JdbcTemplate jdbcTemplate,
+                   PlatformTransactionManager transactionManager,
+                   BulkIssueProperties properties,
+                   Executor jobRunner) {
+        this.userRepository = userRepository;
+        this.shardTopology = shardTopology;
+        this.panAllocator = panAllocator;
+        this.cardEventOutbox = cardEventOutbox;
+        this.dashboardStats = dashboardStats;
+        this.balanceLedger = balanceLedger;
+        this.auditLog = auditLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobRunner = jobRunner;
+        this.encryptionPool = new ForkJoinPool(properties.getEncryptionThreads() > 0
+                ? properties.getEncryptionThreads()
+                : Runtime.getRuntime().availableProcessors());
+        this.batchSize = properties.getBatchSize();
+        this.maxCardsPerJob = properties.getMaxCardsPerJob();
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(properties.getJobRetention()).build();
+    }
+
+    /**
+     * Validates the request, queues the job and returns its initial state. Every user must exist
+     * and be active.
+     */
+    public BulkIssueJobResponse submit(BulkIssueRequest request) {
+        List<BulkIssueRequest.Item> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one item is required.");
+        }
+        Map<UUID, Integer> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (BulkIssueRequest.Item item : items) {
+            if (item.getUserId() == null || item.getCount() < 1) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every item needs a user id and a positive count.");
+            }
+            counts.merge(item.getUserId(), item.getCount(), Integer::sum);
+            total += item.getCount();
+        }
+        if (total > maxCardsPerJob) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A job can issue at most " + maxCardsPerJob + " cards.");
+        }
+
+        Map<UUID, User> users = new LinkedHashMap<>();
+        counts.keySet().stream()
+                .collect(Collectors.groupingBy(shardTopology::shardOf))
+                .forEach((shard, userIds) -> ShardContext.callOn(shard, () -> userRepository.findAllById(userIds))
+                        .forEach(user -> users.put(user.getId(), user)));
+        List<UUID> unusable = counts.keySet().stream()
+                .filter(id -> !users.containsKey(id) || users.get(id).getStatus() != UserStatus.ACTIVE)
+                .toList();
+        if (!unusable.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Users not found or not active: " + unusable);
+        }
+
+        Job job = new Job(UuidV7Generator.generate(), (int) total);
+        jobs.put(job.id, job);
+        counts.forEach((userId, count) ->
+                auditLog.record(AuditLog.Action.CARDS_BULK_ISSUED, userId, "job " + job.id + ", " + count + " cards"));
+
+        List<User> owners = new ArrayList<>(job.requested);
+        counts.forEach((userId, count) -> owners.addAll(Collections.nCopies(count, users.get(userId))));
+        jobRunner.execute(() -> run(job, owners));
+        return job.toResponse();
+    }
+
+    public BulkIssueJobResponse getJob(UUID jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found");
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (jobRunner instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        encryptionPool.shutdown();
+    }
+
+    private void run(Job job, List<User> owners) {
+        job.status = JobStatus.RUNNING;
+        LocalDate expiryDate = DataGenerator.generateExpiryDate();
+        try {
+            CompletableFuture<String[]> numbers = encryptedNumbers(Math.min(batchSize, owners.size()));
+            for (int from = 0; from < owners.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, owners.size());
+                String[] batchNumbers = numbers.join();
+                if (to < owners.size()) {
+                    numbers = encryptedNumbers(Math.min(batchSize, owners.size() - to));
+                }
+                insert(owners.subList(from, to), batchNumbers, expiryDate);
+                job.issued.addAndGet(to - from);
+            }
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException ex) {
+            logger.error("Bulk issue job {} failed after {} cards", job.id, job.issued.get(), ex);
+            job.error = ex.getMessage();
+            job.status = JobStatus.FAILED;
+        }
+    }
+
+    private CompletableFuture<String[]> encryptedNumbers(int count) {
+        return CompletableFuture.supplyAsync(() -> {
+            String[] numbers = new String[count];
+            IntStream.range(0, count).parallel().forEach(i -> numbers[i] = EncryptionUtil.encrypt(panAllocator.next()));
+            return numbers;
+        }, encryptionPool);
+    }
+
+    private void insert(List<User> owners, String[] numbers, LocalDate expiryDate) {
+        List<Card> cards = new ArrayList<>(owners.size());
+        for (int i = 0; i < owners.size(); i++) {
+            Card card = new Card();
+            card.setId(UuidV7Generator.colocatedWith(owners.get(i).getId()));
+            card.setCardNumber(numbers[i]);
+            card.setExpiryDate(expiryDate);
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(CardService.INITIAL_BALANCE);
+            card.setVersion(0L);
+            card.setOwner(owners.get(i));
+            cards.add(card);
+        }
+        // Each card is written to its owner's shard, one transaction per shard.
+        cards.stream()
+                .collect(Collectors.groupingBy(card -> shardTopology.shardOf(card.getOwner().getId())))
+                .forEach((shard, shardCards) -> ShardContext.runOn(shard, () -> insert(shardCards)));
+    }
+
+    private void insert(List<Card> cards) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, cards, cards.size(), (statement, card) -> {
+                statement.setBytes(1, UuidBytes.toBytes(card.getId()));
+                statement.setString(2, card.getCardNumber());
+                statement.setDate(3, Date.valueOf(card.getExpiryDate()));
+                statement.setString(4, card.getStatus().name());
+                statement.setBigDecimal(5, card.getBalance());
+                statement.setLong(6, card.getVersion());
+                statement.setBytes(7, UuidBytes.toBytes(card.getOwner().getId()));
+            });
+            cardEventOutbox.cardsChanged(OutboxEvent.Type.CARD_CREATED, cards);
+            dashboardStats.cardsCreated(cards.size(),
+                    CardService.INITIAL_BALANCE.multiply(BigDecimal.valueOf(cards.size())));
+            balanceLedger.cardsIssued(cards);
+        });
+    }
+
+    private static final class Job {
+
+        private final UUID id;
+        private final int requested;
+        private final AtomicInteger issued = new AtomicInteger();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile String error;
+
+        private Job(UUID id, int requested) {
+            this.id = id;
+            this.requested = requested;
+        }
+
+        private BulkIssueJobResponse toResponse() {
+            BulkIssueJobResponse response = new BulkIssueJobResponse();
+            response.setJobId(id);
+            response.setStatus(status.name());
+            response.setRequested(requested);
+            response.setIssued(issued.get());
+            response.setError(error);
+            return response;
+        }
+    }
+}
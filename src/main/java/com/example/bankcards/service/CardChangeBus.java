@@ -0,0 +1,300 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardChangeEvent;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed card changes to the owner's open {@code /api/cards/stream}
+ * connections.
+ * <p>
+ * Publishing never blocks on a client: every connection has its own bounded buffer, and when a
+ * slow client lets it fill up the oldest pending event is dropped. Each change carries the full
+ * status and balance, so a client that missed an event is corrected by the next one for the same
+ * card. Buffers are drained by a pool of sender threads, one drain per connection at a time, that
+ * grows with the number of connections being written to, so a client whose socket stops accepting
+ * data holds up only its own stream. A send that takes longer than {@code card-stream.send-timeout}
+ * closes the connection, and idle connections get a heartbeat comment so proxies keep them open.
+ */
+@Component
+public class CardChangeBus {
+
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Executor sender;
+    private final Map<UUID, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter stalled;
+
+    @Autowired
+    public CardChangeBus(MeterRegistry meterRegistry,
+                         @Value("${card-stream.timeout:PT30M}") Duration timeout,
+                         @Value("${card-stream.send-timeout:PT5S}") Duration sendTimeout,
+                         @Value("${card-stream.buffer-size:32}") int bufferSize,
+                         @Value("${card-stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                         @Value("${card-stream.sender-threads:64}") int senderThreads) {
+        this(meterRegistry, timeout, sendTimeout, bufferSize, maxConnectionsPerUser, senderPool(senderThreads));
+    }
+
+    CardChangeBus(MeterRegistry meterRegistry, Duration timeout, Duration sendTimeout, int bufferSize,
+                  int maxConnectionsPerUser, Executor sender) {
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.sender = sender;
+        this.sent = meterRegistry.counter("bankcards.card_stream.events", "result", "sent");
+        this.dropped = meterRegistry.counter("bankcards.card_stream.events", "result", "dropped");
+        this.stalled = meterRegistry.counter("bankcards.card_stream.stalled_connections");
+        Gauge.builder("bankcards.card_stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user. When the user already has the maximum number of connections the
+     * oldest one is closed, since it is most likely a client that went away without disconnecting.
+     */
+    public SseEmitter subscribe(UUID ownerId) {
+        return subscribe(ownerId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(UUID ownerId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(ownerId, emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscription));
+
+        List<Subscription> evicted = new ArrayList<>();
+        subscriptions.compute(ownerId, (id, own) -> {
+            List<Subscription> list = own != null ? own : new CopyOnWriteArrayList<>();
+            list.add(subscription);
+            connections.incrementAndGet();
+            while (list.size() > maxConnectionsPerUser) {
+                evicted.add(list.remove(0));
+                connections.decrementAndGet();
+            }
+            return list;
+        });
+        evicted.forEach(oldest -> oldest.emitter.complete());
+        return emitter;
+    }
+
+    /**
+     * Pushes the card's status and balance to its owner once the current transaction commits.
+     */
+    public void publishAfterCommit(Card card) {
+        publishAfterCommit(card, card.getStatus());
+    }
+
+    /**
+     * Tells the owner that the card is gone; used when the row is removed rather than marked deleted.
+     */
+    public void publishRemovedAfterCommit(Card card) {
+        publishAfterCommit(card, CardStatus.DELETED);
+    }
+
+    /**
+     * Closes the user's streams once the current transaction commits, e.g. after the user is blocked.
+     */
+    public void disconnectAfterCommit(UUID ownerId) {
+        TransactionHooks.afterCommit(() -> {
+            List<Subscription> own = subscriptions.remove(ownerId);
+            if (own != null) {
+                own.forEach(subscription -> {
+                    connections.decrementAndGet();
+                    subscription.emitter.complete();
+                });
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${card-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscriptions.values().forEach(own -> own.forEach(Subscription::heartbeat));
+    }
+
+    /**
+     * Closes the connections whose current send has not returned within the send timeout. The
+     * sender stuck in the write is released when the connector times the write out.
+     */
+    @Scheduled(fixedDelayString = "${card-stream.send-timeout:PT5S}")
+    public void closeStalled() {
+        long now = System.nanoTime();
+        subscriptions.values().forEach(own -> own.forEach(subscription -> {
+            long sendStarted = subscription.sendStarted;
+            if (sendStarted != 0 && now - sendStarted > sendTimeoutNanos) {
+                subscription.closeStalled();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(own -> own.forEach(subscription -> subscription.emitter.complete()));
+        subscriptions.clear();
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    /**
+     * Threads are started as connections need them, up to {@code threads}, and end when idle, so
+     * the pool is small when all clients keep up and a stalled client never waits in line for others.
+     */
+    static ExecutorService senderPool(int threads) {
+        return new ThreadPoolExecutor(0, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "card-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void publishAfterCommit(Card card, CardStatus status) {
+        UUID ownerId = card.getOwner().getId();
+        CardChangeEvent change = new CardChangeEvent(card.getId(), status.name(), card.getBalance());
+        TransactionHooks.afterCommit(() -> {
+            List<Subscription> own = subscriptions.get(ownerId);
+            if (own != null) {
+                own.forEach(subscription -> subscription.offer(change));
+            }
+        });
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.ownerId, (id, own) -> {
+            if (own.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return own.isEmpty() ? null : own;
+        });
+    }
+
+    private final class Subscription {
+
+        private final UUID ownerId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStarted;
+        private volatile boolean closed;
+
+        private Subscription(UUID ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+        }
+
+        private void offer(CardChangeEvent change) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name("card")
+                    .data(change, MediaType.APPLICATION_JSON);
+            synchronized (buffer) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                }
+                buffer.addLast(event);
+            }
+            scheduleDrain();
+        }
+
+        private void heartbeat() {
+            synchronized (buffer) {
+                if (buffer.isEmpty()) {
+                    buffer.addLast(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    // Every sender is busy; the buffer is drained on the next event or heartbeat.
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void closeStalled() {
+            if (!closed) {
+                closed = true;
+                stalled.increment();
+                remove(this);
+                synchronized (buffer) {
+                    buffer.clear();
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (buffer) {
+                    event = buffer.pollFirst();
+                    if (event == null) {
+                        draining.set(false);
+                        return;
+                    }
+                }
+                try {
+                    sendStarted = System.nanoTime();
+                    emitter.send(event);
+                    sendStarted = 0;
+                    if (closed) {
+                        emitter.completeWithError(new IOException("Send timed out"));
+                        return;
+                    }
+                    sent.increment();
+                } catch (IOException | IllegalStateException ex) {
+                    sendStarted = 0;
+                    remove(this);
+                    emitter.completeWithError(ex);
+                    synchronized (buffer) {
+                        buffer.clear();
+                        draining.set(false);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
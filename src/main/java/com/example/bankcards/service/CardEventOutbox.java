@@ -0,0 +1,93 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends card lifecycle events to the {@code outbox_event} table in the caller's transaction, so an
+ * event exists exactly when the change it describes was committed. {@link OutboxRelay} publishes
+ * them afterwards.
+ * <p>
+ * Rows are written with plain JDBC rather than through the persistence context: the insert goes
+ * out immediately, adds nothing to the session flush, and ids are UUIDv7 so new rows land at the
+ * end of the primary key.
+ */
+@Component
+public class CardEventOutbox {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_event "
+            + "(id, created_at, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CardEventOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardChanged(OutboxEvent.Type type, Card card) {
+        append(List.of(event(type, card)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardsChanged(OutboxEvent.Type type, Collection<Card> cards) {
+        append(cards.stream().map(card -> event(type, card)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void fundsTransferred(Card source, Card destination, BigDecimal amount) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sourceCardId", source.getId());
+        payload.put("destinationCardId", destination.getId());
+        payload.put("ownerId", source.getOwner().getId());
+        payload.put("amount", amount);
+        append(List.of(new OutboxEvent(UuidV7Generator.generate(), Instant.now(), source.getId(),
+                OutboxEvent.Type.FUNDS_TRANSFERRED, toJson(payload))));
+    }
+
+    private OutboxEvent event(OutboxEvent.Type type, Card card) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("cardId", card.getId());
+        payload.put("ownerId", card.getOwner().getId());
+        payload.put("status", card.getStatus());
+        return new OutboxEvent(UuidV7Generator.generate(), Instant.now(), card.getId(), type, toJson(payload));
+    }
+
+    private void append(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setBytes(1, UuidBytes.toBytes(event.id()));
+            statement.setTimestamp(2, Timestamp.from(event.createdAt()));
+            statement.setBytes(3, UuidBytes.toBytes(event.aggregateId()));
+            statement.setString(4, event.type().name());
+            statement.setString(5, event.payload());
+        });
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox payload", ex);
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBatchResponse;
+import com.example.bankcards.dto.CardFields;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardView;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
+import com.example.bankcards.repository.CardVersionView;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardMapper;
 import com.example.bankcards.util.DataGenerator;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -20,8 +28,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -31,11 +42,24 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CardService.class);
+
+    static final BigDecimal INITIAL_BALANCE = new BigDecimal("200.00");
+
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardMapper cardMapper;
+    private final CardViewCache cardViewCache;
+    private final AuditLog auditLog;
+    private final CardEventOutbox cardEventOutbox;
+    private final CardChangeBus cardChangeBus;
+    private final PanAllocator panAllocator;
+    private final DashboardStats dashboardStats;
+    private final BalanceLedger balanceLedger;
+    private final BalanceSnapshots balanceSnapshots;
 
     @Scheduled(cron = "0 0 0 * * ?")
+    @ForEachShard
     @Transactional
     public void expireCards() {
         LocalDate today = LocalDate.now();
@@ -44,9 +68,14 @@ public class CardService {
         if (!expiredCards.isEmpty()) {
             expiredCards.forEach(card -> {
                 card.setStatus(CardStatus.EXPIRED);
-                System.out.println("Card " + card.getId() + " has expired and its status has been updated.");
+                cardViewCache.invalidateAfterCommit(card);
+                auditLog.record(AuditLog.Action.CARD_EXPIRED, card.getId());
+                cardChangeBus.publishAfterCommit(card);
+                logger.debug("Card {} has expired", card.getId());
             });
             cardRepository.saveAll(expiredCards);
+            cardEventOutbox.cardsChanged(OutboxEvent.Type.CARD_EXPIRED, expiredCards);
+            dashboardStats.cardStatusChanged(CardStatus.ACTIVE, CardStatus.EXPIRED, expiredCards.size());
         }
     }
 
@@ -55,17 +84,23 @@ public class CardService {
         User owner = getCurrentUser();
 
         Card newCard = new Card();
-        newCard.setCardNumber(DataGenerator.generateCardNumber());
+        newCard.setCardNumber(panAllocator.next());
         newCard.setExpiryDate(DataGenerator.generateExpiryDate());
         newCard.setOwner(owner);
-        newCard.setBalance(new BigDecimal("200.00"));
+        newCard.setBalance(INITIAL_BALANCE);
         newCard.setStatus(CardStatus.ACTIVE);
 
         Card savedCard = cardRepository.save(newCard);
+        auditLog.record(AuditLog.Action.CARD_CREATED, savedCard.getId());
+        cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_CREATED, savedCard);
+        dashboardStats.cardsCreated(1, INITIAL_BALANCE);
+        balanceLedger.cardsIssued(List.of(savedCard));
+        cardChangeBus.publishAfterCommit(savedCard);
         return cardMapper.toCardResponse(savedCard);
     }
 
     @Transactional
+    @RetryOnOptimisticLock
     public CardResponse blockCard(UUID cardId) {
         User currentUser = getCurrentUser();
         Card card = cardRepository.findById(cardId)
@@ -81,6 +116,11 @@ public class CardService {
         }
 
         card.setStatus(CardStatus.BLOCKED);
+        cardViewCache.invalidateAfterCommit(card);
+        auditLog.record(AuditLog.Action.CARD_BLOCKED, cardId);
+        cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_BLOCKED, card);
+        dashboardStats.cardStatusChanged(CardStatus.ACTIVE, CardStatus.BLOCKED, 1);
+        cardChangeBus.publishAfterCommit(card);
         Card savedCard = cardRepository.save(card);
         return cardMapper.toCardResponse(savedCard);
     }
@@ -99,11 +139,17 @@ public class CardService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot delete a card with a non-zero balance.");
         }
 
+        dashboardStats.cardStatusChanged(card.getStatus(), CardStatus.DELETED, 1);
         card.setStatus(CardStatus.DELETED);
+        cardViewCache.invalidateAfterCommit(card);
+        auditLog.record(AuditLog.Action.CARD_DELETED, cardId);
+        cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_DELETED, card);
+        cardChangeBus.publishAfterCommit(card);
         cardRepository.save(card);
     }
 
     @Transactional
+    @RetryOnOptimisticLock
     public void transferFunds(TransferRequest transferRequest) {
         if (transferRequest.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Transfer amount must be positive.");
@@ -134,37 +180,135 @@ public class CardService {
 
         sourceCard.setBalance(sourceCard.getBalance().subtract(transferRequest.getAmount()));
         destinationCard.setBalance(destinationCard.getBalance().add(transferRequest.getAmount()));
+        cardViewCache.invalidateAfterCommit(sourceCard);
+        cardViewCache.invalidateAfterCommit(destinationCard);
 
         cardRepository.save(sourceCard);
         cardRepository.save(destinationCard);
+        cardEventOutbox.fundsTransferred(sourceCard, destinationCard, transferRequest.getAmount());
+        balanceLedger.transferred(sourceCard, destinationCard, transferRequest.getAmount());
+        cardChangeBus.publishAfterCommit(sourceCard);
+        cardChangeBus.publishAfterCommit(destinationCard);
     }
 
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String username = getCurrentUsername();
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
+    private String getCurrentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    @Transactional(readOnly = true)
+    @SingleFlight
     public Page<CardResponse> getCardsForCurrentUser(Pageable pageable) {
         User currentUser = getCurrentUser();
         
         Page<Card> cardsPage = cardRepository.findByOwnerIdAndStatusNot(currentUser.getId(), CardStatus.DELETED, pageable);
-        return cardsPage.map(cardMapper::toCardResponse);
+        return cardsPage.map(cardViewCache::toCardResponse);
     }
 
-    public CardResponse getCardByIdForCurrentUser(UUID cardId) {
+    /**
+     * Lists the current user's cards with only the selected fields. The cards are read as tuples
+     * of the needed columns rather than through {@link CardViewCache}, and the card number is
+     * decrypted only when it is selected.
+     */
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public Page<CardResponse> getCardsForCurrentUser(Pageable pageable, CardFields fields) {
         User currentUser = getCurrentUser();
-        Card card = cardRepository.findById(cardId)
+
+        return cardRepository.findFields(CardSpecifications.ownedBy(currentUser.getId())
+                        .and(CardSpecifications.hasStatusNot(CardStatus.DELETED)), fields, pageable)
+                .map(row -> cardMapper.toCardResponse(row, fields));
+    }
+
+    /**
+     * Returns the current user's cards among {@code ids}, read with one query that checks ownership
+     * as well. Cards that do not exist, are deleted or belong to someone else are all reported as
+     * missing.
+     */
+    @Transactional(readOnly = true)
+    public CardBatchResponse getCardsByIdsForCurrentUser(List<UUID> ids) {
+        List<UUID> requested = CardBatchResponse.requestedIds(ids);
+        List<CardResponse> cards = cardRepository.findWithOwnerByIdInAndOwnerUsernameAndStatusNot(
+                        requested, getCurrentUsername(), CardStatus.DELETED).stream()
+                .map(cardViewCache::toCardResponse)
+                .toList();
+        return CardBatchResponse.of(requested, cards);
+    }
+
+    /**
+     * Returns the version of the current user's card, or {@code null} if the card is not visible
+     * to the user. Only the version column is read, so conditional requests skip hydration and mapping.
+     */
+    @Transactional(readOnly = true)
+    public Long getCardVersionForCurrentUser(UUID cardId) {
+        return cardRepository.findVersionByIdAndOwnerUsernameAndStatusNot(cardId, getCurrentUsername(), CardStatus.DELETED)
+                .orElse(null);
+    }
+
+    /**
+     * Returns the entity tag of a page of the current user's cards, derived from the ids and versions
+     * of the cards on the page and the total count.
+     */
+    @Transactional(readOnly = true)
+    @SingleFlight
+    public String getCardsETagForCurrentUser(Pageable pageable) {
+        Page<CardVersionView> versions = cardRepository.findVersionsByOwnerUsernameAndStatusNot(
+                getCurrentUsername(), CardStatus.DELETED, pageable);
+
+        StringBuilder source = new StringBuilder().append(versions.getTotalElements());
+        for (CardVersionView version : versions) {
+            source.append('|').append(version.getId()).append(':').append(version.getVersion());
+        }
+        return DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Served from {@link CardViewCache}; a hit needs neither a query nor decryption. A cached view
+     * older than {@code minimumVersion} is reloaded, so the card is never older than a version the
+     * caller has already seen.
+     */
+    @Transactional(readOnly = true)
+    public CardView getCardViewForCurrentUser(UUID cardId, long minimumVersion) {
+        CardView card = cardViewCache.get(cardId, minimumVersion, () -> cardRepository.findById(cardId))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found"));
 
-        if (card.getStatus() == CardStatus.DELETED) {
+        if (CardStatus.DELETED.name().equals(card.getStatus())) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found");
         }
 
-        if (!card.getOwner().getId().equals(currentUser.getId())) {
+        if (!getCurrentUsername().equals(card.getOwnerUsername())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        return card;
+    }
+
+    /**
+     * Returns the current user's card balance at the end of a past day, from the nightly snapshots
+     * in {@link BalanceSnapshots}.
+     */
+    @Transactional(readOnly = true)
+    public CardBalanceResponse getBalanceAsOfForCurrentUser(UUID cardId, LocalDate date) {
+        CardBalanceResponse balance = balanceSnapshots.getAsOf(cardId, date);
+        if (CardStatus.DELETED.name().equals(balance.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found");
+        }
+        if (!getCurrentUser().getId().equals(balance.getUserId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
         }
+        return balance;
+    }
 
-        return cardMapper.toCardResponse(card);
+    /**
+     * Opens a stream of the current user's card changes; see {@link CardChangeBus}.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter streamChangesForCurrentUser() {
+        return cardChangeBus.subscribe(getCurrentUser().getId());
     }
-}
\ No newline at end of file
+}
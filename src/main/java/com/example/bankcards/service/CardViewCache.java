@@ -0,0 +1,248 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardView;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardOwnerVersionView;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardMapper;
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of mapped cards keyed by card id, so that repeated reads skip the query and
+ * the card number decryption.
+ * <p>
+ * Every cached view carries the card and owner versions it was built from. Writes on this node
+ * fence the affected ids after commit: the cached copy is dropped and any view older than the
+ * committed write is refused, so a reader that loaded the row before the commit cannot put the
+ * old balance back. Writes on other nodes are picked up by periodically comparing the versions
+ * of cached ids with the database, or sooner by a read that has just seen a newer version.
+ */
+@Component
+public class CardViewCache {
+
+    private static final Fence GONE = new Fence(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final CardMapper cardMapper;
+    private final CardRepository cardRepository;
+    private final ShardTopology shardTopology;
+    private final int pollBatchSize;
+    private final Cache<UUID, CardView> views;
+    private final Cache<UUID, Fence> cardFences;
+    private final Cache<UUID, Long> ownerFences;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter writeInvalidations;
+    private final Counter pollInvalidations;
+    private final Counter readInvalidations;
+
+    public CardViewCache(CardMapper cardMapper,
+                         CardRepository cardRepository,
+                         ShardTopology shardTopology,
+                         MeterRegistry meterRegistry,
+                         @Value("${card-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${card-cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+                         @Value("${card-cache.version-poll-batch-size:500}") int pollBatchSize) {
+        this.cardMapper = cardMapper;
+        this.cardRepository = cardRepository;
+        this.shardTopology = shardTopology;
+        this.pollBatchSize = pollBatchSize;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        // Fences only need to outlive reads that were already in flight when the write committed.
+        this.cardFences = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(Duration.ofMinutes(1)).build();
+        this.ownerFences = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(Duration.ofMinutes(1)).build();
+
+        this.hits = meterRegistry.counter("bankcards.card_cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("bankcards.card_cache.requests", "result", "miss");
+        this.writeInvalidations = meterRegistry.counter("bankcards.card_cache.invalidations", "source", "write");
+        this.pollInvalidations = meterRegistry.counter("bankcards.card_cache.invalidations", "source", "poll");
+        this.readInvalidations = meterRegistry.counter("bankcards.card_cache.invalidations", "source", "read");
+        Gauge.builder("bankcards.card_cache.size", views, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    /**
+     * Returns the view of a card, loading and caching it on a miss. Must be called inside a
+     * transaction so the loader can initialize the owner.
+     */
+    public Optional<CardView> get(UUID cardId, Supplier<Optional<Card>> loader) {
+        return get(cardId, 0, loader);
+    }
+
+    /**
+     * Returns the view of a card built from at least {@code minimumVersion}, which a caller that
+     * has just read the version from the database passes so that a change made on another node
+     * and not yet polled is loaded instead of served from the stale copy.
+     */
+    public Optional<CardView> get(UUID cardId, long minimumVersion, Supplier<Optional<Card>> loader) {
+        CardView cached = views.getIfPresent(cardId);
+        if (cached != null && cached.getVersion() >= minimumVersion) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        if (cached != null) {
+            cardFences.asMap().merge(cardId, new Fence(minimumVersion, 0), Fence::max);
+            if (views.asMap().remove(cardId, cached)) {
+                readInvalidations.increment();
+            }
+        }
+        misses.increment();
+        Optional<CardView> view = loader.get().map(cardMapper::toCardView);
+        view.ifPresent(this::put);
+        return view;
+    }
+
+    /**
+     * Maps an already loaded, unmodified card, reusing the cached view when it was built from the
+     * same versions.
+     */
+    public CardResponse toCardResponse(Card card) {
+        CardView cached = views.getIfPresent(card.getId());
+        if (cached != null && cached.getVersion() == versionOf(card.getVersion())
+                && (card.getOwner() == null || cached.getOwnerVersion() == versionOf(card.getOwner().getVersion()))) {
+            hits.increment();
+            return cached.toCardResponse();
+        }
+        misses.increment();
+        CardView view = cardMapper.toCardView(card);
+        put(view);
+        return view.toCardResponse();
+    }
+
+    /**
+     * Drops the card once the current transaction commits and refuses views older than this write.
+     */
+    public void invalidateAfterCommit(Card card) {
+        if (card.getId() == null || card.getVersion() == null) {
+            return;
+        }
+        UUID cardId = card.getId();
+        Fence fence = new Fence(card.getVersion() + 1, 0);
+        TransactionHooks.afterCommit(() -> fence(cardId, fence));
+    }
+
+    public void evictAfterCommit(UUID cardId) {
+        TransactionHooks.afterCommit(() -> fence(cardId, GONE));
+    }
+
+    /**
+     * Drops every card of the user once the current transaction commits, since views embed the
+     * owner's status.
+     */
+    public void invalidateOwnerAfterCommit(User owner) {
+        if (owner.getId() == null || owner.getVersion() == null) {
+            return;
+        }
+        UUID ownerId = owner.getId();
+        long minimumVersion = owner.getVersion() + 1;
+        TransactionHooks.afterCommit(() -> {
+            ownerFences.asMap().merge(ownerId, minimumVersion, Math::max);
+            views.asMap().values().removeIf(view -> {
+                boolean stale = ownerId.equals(view.getOwnerId()) && view.getOwnerVersion() < minimumVersion;
+                if (stale) {
+                    writeInvalidations.increment();
+                }
+                return stale;
+            });
+        });
+    }
+
+    /**
+     * Compares the versions of all cached cards with the database and drops those changed by
+     * other nodes. Cards are polled on the shard they live on.
+     */
+    @Scheduled(fixedDelayString = "${card-cache.version-poll-interval:PT5S}")
+    public void pollVersions() {
+        Map<Integer, List<UUID>> cachedIdsByShard = views.asMap().keySet().stream()
+                .collect(Collectors.groupingBy(shardTopology::shardOf));
+        cachedIdsByShard.forEach((shard, cachedIds) -> ShardContext.runOn(shard, () -> pollVersions(cachedIds)));
+    }
+
+    private void pollVersions(List<UUID> cachedIds) {
+        for (int from = 0; from < cachedIds.size(); from += pollBatchSize) {
+            List<UUID> batch = cachedIds.subList(from, Math.min(cachedIds.size(), from + pollBatchSize));
+            Map<UUID, CardOwnerVersionView> current = cardRepository.findVersionsWithOwnerByIdIn(batch).stream()
+                    .collect(Collectors.toMap(CardOwnerVersionView::getId, Function.identity()));
+
+            for (UUID cardId : batch) {
+                CardView cached = views.asMap().get(cardId);
+                CardOwnerVersionView row = current.get(cardId);
+                Fence fence = row != null ? new Fence(row.getVersion(), row.getOwnerVersion()) : GONE;
+                if (cached != null && !fence.admits(cached)) {
+                    cardFences.asMap().merge(cardId, fence, Fence::max);
+                    if (views.asMap().remove(cardId, cached)) {
+                        pollInvalidations.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    long size() {
+        views.cleanUp();
+        return views.estimatedSize();
+    }
+
+    private void put(CardView view) {
+        views.asMap().compute(view.getId(), (cardId, current) -> {
+            Fence fence = cardFences.getIfPresent(cardId);
+            Long minimumOwnerVersion = view.getOwnerId() != null ? ownerFences.getIfPresent(view.getOwnerId()) : null;
+            if ((fence != null && !fence.admits(view))
+                    || (minimumOwnerVersion != null && view.getOwnerVersion() < minimumOwnerVersion)) {
+                return current;
+            }
+            if (current != null && (current.getVersion() > view.getVersion()
+                    || current.getOwnerVersion() > view.getOwnerVersion())) {
+                return current;
+            }
+            return view;
+        });
+    }
+
+    private void fence(UUID cardId, Fence fence) {
+        cardFences.asMap().merge(cardId, fence, Fence::max);
+        if (views.asMap().remove(cardId) != null) {
+            writeInvalidations.increment();
+        }
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Lowest card and owner versions a view must have to be cached.
+     */
+    private record Fence(long version, long ownerVersion) {
+
+        boolean admits(CardView view) {
+            return view.getVersion() >= version && view.getOwnerVersion() >= ownerVersion;
+        }
+
+        static Fence max(Fence a, Fence b) {
+            return new Fence(Math.max(a.version, b.version), Math.max(a.ownerVersion, b.ownerVersion));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.DashboardStatsProperties;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.AdminStatsResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Running totals behind {@code GET /api/admin/stats}: cards per status, the balance held on all
+ * cards, and active users.
+ * <p>
+ * Writers add their deltas to the {@code dashboard_stats} table in the transaction that makes the
+ * change, so the totals move exactly when the change commits. Every total is spread over a fixed
+ * number of stripe rows and each transaction updates one random stripe, which keeps concurrent
+ * writers off each other's row locks; reading sums the stripes, which costs the same however many
+ * cards exist. A periodic recompute from {@code cards} and {@code users} repairs any drift, for
+ * example from rows changed outside the application.
+ */
+@Component
+@EnableConfigurationProperties(DashboardStatsProperties.class)
+public class DashboardStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStats.class);
+    private static final String CARDS_PREFIX = "cards.";
+    private static final String TOTAL_BALANCE = "balance.total";
+    private static final String ACTIVE_USERS = "users.active";
+    private static final String RECOMPUTE_GUARD = "recompute.guard";
+    private static final String UPSERT_SQL = "INSERT INTO dashboard_stats (metric, stripe, amount) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE amount = amount + ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTopology shardTopology;
+    private final int stripes;
+    private final Counter corrections;
+
+    public DashboardStats(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ShardTopology shardTopology,
+                          DashboardStatsProperties properties,
+                          MeterRegistry meterRegistry) {
+        if (properties.getStripes() < 1) {
+            throw new IllegalArgumentException("Dashboard stats need at least one stripe");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Both reads of a recompute must see the same commits for their difference to be the drift.
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.shardTopology = shardTopology;
+        this.stripes = properties.getStripes();
+        this.corrections = meterRegistry.counter("bankcards.dashboard_stats.corrections");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardsCreated(int count, BigDecimal balance) {
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        deltas.put(CARDS_PREFIX + CardStatus.ACTIVE, BigDecimal.valueOf(count));
+        deltas.put(TOTAL_BALANCE, balance);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardStatusChanged(CardStatus from, CardStatus to, int count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        deltas.put(CARDS_PREFIX + from, BigDecimal.valueOf(-count));
+        deltas.put(CARDS_PREFIX + to, BigDecimal.valueOf(count));
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardRemoved(Card card) {
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        deltas.put(CARDS_PREFIX + card.getStatus(), BigDecimal.ONE.negate());
+        deltas.put(TOTAL_BALANCE, card.getBalance().negate());
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void activeUsersChanged(int delta) {
+        if (delta != 0) {
+            apply(Map.of(ACTIVE_USERS, BigDecimal.valueOf(delta)));
+        }
+    }
+
+    public AdminStatsResponse snapshot() {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        // Every shard keeps the totals of its own rows.
+        shardTopology.forEachShard(() -> jdbcTemplate.query(
+                "SELECT metric, SUM(amount) AS total FROM dashboard_stats GROUP BY metric",
+                rs -> {
+                    totals.merge(rs.getString("metric"), rs.getBigDecimal("total"), BigDecimal::add);
+                }));
+
+        Map<String, Long> cardsByStatus = new LinkedHashMap<>();
+        for (CardStatus status : CardStatus.values()) {
+            cardsByStatus.put(status.name(), totals.getOrDefault(CARDS_PREFIX + status, BigDecimal.ZERO).longValue());
+        }
+        AdminStatsResponse response = new AdminStatsResponse();
+        response.setCardsByStatus(cardsByStatus);
+        response.setTotalBalance(totals.getOrDefault(TOTAL_BALANCE, BigDecimal.ZERO).setScale(2));
+        response.setActiveUsers(totals.getOrDefault(ACTIVE_USERS, BigDecimal.ZERO).longValue());
+        return response;
+    }
+
+    /**
+     * Corrects the totals to the values counted from the source tables. Recomputes on different
+     * nodes take turns on a guard row that writers never touch; the current totals and the counts
+     * are then read from one consistent snapshot without locking anything, so writers are never held
+     * up by the scans, and the difference is added like any other delta, which leaves the deltas
+     * committed since the snapshot in place.
+     */
+    @Scheduled(fixedDelayString = "${dashboard-stats.recompute-interval:PT15M}",
+            initialDelayString = "${dashboard-stats.recompute-initial-delay:PT1M}")
+    @ForEachShard
+    public void recompute() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(UPSERT_SQL, RECOMPUTE_GUARD, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+            Map<String, BigDecimal> current = new TreeMap<>();
+            jdbcTemplate.query("SELECT metric, amount FROM dashboard_stats WHERE metric <> ?", rs -> {
+                current.merge(rs.getString("metric"), rs.getBigDecimal("amount"), BigDecimal::add);
+            }, RECOMPUTE_GUARD);
+
+            Map<String, BigDecimal> actual = count();
+            Map<String, BigDecimal> drift = new TreeMap<>();
+            actual.forEach((metric, amount) -> {
+                BigDecimal delta = amount.subtract(current.getOrDefault(metric, BigDecimal.ZERO));
+                if (delta.signum() != 0) {
+                    drift.put(metric, delta);
+                }
+            });
+            current.forEach((metric, amount) -> {
+                if (!actual.containsKey(metric) && amount.signum() != 0) {
+                    drift.put(metric, amount.negate());
+                }
+            });
+
+            // An empty table is the first fill, not drift.
+            if (!current.isEmpty() && !drift.isEmpty()) {
+                corrections.increment();
+                logger.warn("Dashboard stats drifted from the source tables: {} corrected to {}", current, actual);
+            }
+            if (!drift.isEmpty()) {
+                apply(drift);
+            }
+        });
+    }
+
+    private Map<String, BigDecimal> count() {
+        Map<CardStatus, BigDecimal> cards = new EnumMap<>(CardStatus.class);
+        BigDecimal[] balance = {BigDecimal.ZERO};
+        jdbcTemplate.query("SELECT status, COUNT(*) AS cards, COALESCE(SUM(balance), 0) AS balance "
+                + "FROM cards GROUP BY status", rs -> {
+            cards.put(CardStatus.valueOf(rs.getString("status")), rs.getBigDecimal("cards"));
+            balance[0] = balance[0].add(rs.getBigDecimal("balance"));
+        });
+        BigDecimal activeUsers = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE status = 'ACTIVE'", BigDecimal.class);
+
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (CardStatus status : CardStatus.values()) {
+            totals.put(CARDS_PREFIX + status, cards.getOrDefault(status, BigDecimal.ZERO));
+        }
+        totals.put(TOTAL_BALANCE, balance[0]);
+        totals.put(ACTIVE_USERS, activeUsers);
+        return totals;
+    }
+
+    private void apply(Map<String, BigDecimal> deltas) {
+        // One stripe per call and metrics in a fixed order, so writers never lock rows in opposite orders.
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((metric, delta) -> rows.add(new Object[]{metric, stripe, delta, delta}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
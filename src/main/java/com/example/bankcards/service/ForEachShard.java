@@ -0,0 +1,17 @@
+package com.example.bankcards.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a background job once on every shard, each run in its own transaction. A failing shard
+ * does not stop the others; the first failure is rethrown once all shards have run.
+ *
+ * @see com.example.bankcards.config.ShardRoutingAspect
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ForEachShard {
+}
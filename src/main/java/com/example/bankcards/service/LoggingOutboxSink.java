@@ -0,0 +1,26 @@
+package com.example.bankcards.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default sink: writes every event as one line to the {@code bankcards.outbox} logger, which can be
+ * routed to its own file through the logging configuration.
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger("bankcards.outbox");
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.info("{} {} {} {} {}", event.id(), event.createdAt(), event.type(), event.aggregateId(), event.payload());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A card lifecycle event as stored in the {@code outbox_event} table. The payload is JSON.
+ */
+public record OutboxEvent(UUID id, Instant createdAt, UUID aggregateId, Type type, String payload) {
+
+    public enum Type {
+        CARD_CREATED,
+        CARD_BLOCKED,
+        CARD_ACTIVATED,
+        CARD_EXPIRED,
+        CARD_DELETED,
+        FUNDS_TRANSFERRED
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.OutboxProperties;
+import com.example.bankcards.util.UuidBytes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves events from the outbox to the configured {@link OutboxSink}.
+ * <p>
+ * Each batch runs in one transaction: the oldest rows are locked with {@code FOR UPDATE SKIP LOCKED},
+ * published, and deleted with a single statement. Rows locked by another relay instance are skipped
+ * rather than waited for, so several nodes can drain the outbox in parallel and the inserts done by
+ * transfers never contend with the relay. A failed publish rolls the batch back for the next poll.
+ */
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String SELECT_SQL = "SELECT id, created_at, aggregate_id, event_type, payload "
+            + "FROM outbox_event ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            UuidBytes.fromBytes(rs.getBytes("id")),
+            rs.getTimestamp("created_at").toInstant(),
+            UuidBytes.fromBytes(rs.getBytes("aggregate_id")),
+            OutboxEvent.Type.valueOf(rs.getString("event_type")),
+            rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxSink sink,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.batchSize = properties.getBatchSize();
+        this.maxBatchesPerPoll = properties.getMaxBatchesPerPoll();
+        this.published = meterRegistry.counter("bankcards.outbox.published");
+        this.failures = meterRegistry.counter("bankcards.outbox.failures");
+        this.lag = meterRegistry.timer("bankcards.outbox.lag");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT1S}")
+    @ForEachShard
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch());
+                if (relayed == null || relayed < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            logger.warn("Relaying outbox events failed, will retry on the next poll", ex);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events);
+
+        String placeholders = String.join(", ", Collections.nCopies(events.size(), "?"));
+        jdbcTemplate.update("DELETE FROM outbox_event WHERE id IN (" + placeholders + ")",
+                events.stream().map(event -> UuidBytes.toBytes(event.id())).toArray());
+
+        published.increment(events.size());
+        lag.record(Duration.between(events.get(0).createdAt(), Instant.now()));
+        return events.size();
+    }
+}
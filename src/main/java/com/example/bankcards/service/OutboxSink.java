@@ -0,0 +1,20 @@
+package com.example.bankcards.service;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Delivery is at least once: a batch is deleted from the
+ * outbox only after {@link #publish} returns, so consumers must tolerate duplicates and use the
+ * event id to detect them.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes the batch in id order. That is only roughly creation order: ids come from each
+     * node's clock, transactions commit out of id order, and relays on several nodes publish
+     * batches concurrently. Consumers must not depend on the order of events: a card event carries
+     * the card's status after the change and a transfer carries its amount, not a balance. Throwing
+     * leaves the whole batch in the outbox to be retried on the next poll.
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,213 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.PanProperties;
+import com.example.bankcards.config.ReplicaRoutingDataSource;
+import com.example.bankcards.config.ShardRoutingDataSource;
+import com.example.bankcards.util.Luhn;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues unique, Luhn-valid 16-digit card numbers without asking the database whether a number is
+ * taken.
+ * <p>
+ * Numbers are BIN + account number + check digit. For each BIN the {@code pan_block_counter} row
+ * hands out disjoint blocks of account indexes; a node leases a block in its own short transaction
+ * and then issues from it with a single atomic increment, so uniqueness holds across nodes by
+ * construction. The index is multiplied by a constant coprime to the account space before use,
+ * which is a bijection, so numbers stay unique while consecutive cards do not look consecutive.
+ * <p>
+ * Leases go through a one-connection pool of their own, copied from the pool of the primary (or of
+ * the first shard, which keeps the counter). Callers lease from inside their own transactions and
+ * wait for each other on the refill while holding their connections, so leasing from the shared
+ * pool could leave the one thread allowed to lease waiting for a connection nobody gives back.
+ */
+@Component
+@EnableConfigurationProperties(PanProperties.class)
+public class PanAllocator {
+
+    private static final int PAN_LENGTH = 16;
+
+    private final DataSource leaseDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final List<Range> ranges;
+    private final int blockSize;
+    private final Counter blocksLeased;
+    private volatile Block block = new Block(null, 0, 0);
+    private int rangeIndex;
+
+    public PanAllocator(DataSource dataSource,
+                        PanProperties properties,
+                        MeterRegistry meterRegistry) {
+        if (properties.getBins().isEmpty()) {
+            throw new IllegalArgumentException("At least one BIN must be configured");
+        }
+        if (properties.getBlockSize() < 1) {
+            throw new IllegalArgumentException("PAN block size must be positive");
+        }
+        long lastDigit = properties.getScrambleMultiplier() % 10;
+        if (lastDigit != 1 && lastDigit != 3 && lastDigit != 7 && lastDigit != 9) {
+            throw new IllegalArgumentException("PAN scramble multiplier must end in 1, 3, 7 or 9");
+        }
+        this.leaseDataSource = leaseDataSource(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(leaseDataSource);
+        this.leaseTransaction = new TransactionTemplate(new DataSourceTransactionManager(leaseDataSource));
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ranges = properties.getBins().stream()
+                .map(bin -> new Range(bin, properties.getScrambleMultiplier()))
+                .toList();
+        this.blockSize = properties.getBlockSize();
+        this.blocksLeased = meterRegistry.counter("bankcards.pan.blocks_leased");
+    }
+
+    /**
+     * Returns a card number no other call on any node has returned or will return.
+     */
+    public String next() {
+        while (true) {
+            Block current = block;
+            long index = current.next.getAndIncrement();
+            if (index < current.end) {
+                return current.range.format(index);
+            }
+            refill(current);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (block != exhausted) {
+            return;
+        }
+        while (rangeIndex < ranges.size()) {
+            Range range = ranges.get(rangeIndex);
+            Long end = leaseTransaction.execute(status -> lease(range));
+            if (end != null) {
+                blocksLeased.increment();
+                block = new Block(range, Math.max(0, end - blockSize), Math.min(end, range.capacity));
+                return;
+            }
+            rangeIndex++;
+        }
+        throw new IllegalStateException("All configured BINs are exhausted");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (leaseDataSource instanceof HikariDataSource pool) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Returns a one-connection pool with the settings of the pool the counter lives in, or the data
+     * source holding the counter itself when it is not a Hikari pool.
+     */
+    private static DataSource leaseDataSource(DataSource dataSource) {
+        DataSource target = dataSource;
+        if (target instanceof LazyConnectionDataSourceProxy proxy) {
+            target = proxy.getTargetDataSource();
+        }
+        if (target instanceof ReplicaRoutingDataSource routing) {
+            target = routing.getPrimary();
+        }
+        if (target instanceof ShardRoutingDataSource routing) {
+            // Blocks are leased from one counter for all users, kept on the first shard.
+            target = routing.getShards().get(0);
+        }
+        if (!(target instanceof HikariDataSource pool)) {
+            return target;
+        }
+        HikariConfig config = new HikariConfig();
+        pool.copyStateTo(config);
+        config.setPoolName(pool.getPoolName() != null ? pool.getPoolName() + "-pan-lease" : "pan-lease");
+        config.setMaximumPoolSize(1);
+        config.setMinimumIdle(0);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Moves the BIN's counter past one block and returns the new counter value, or {@code null} when
+     * the BIN has no account numbers left.
+     */
+    private Long lease(Range range) {
+        while (true) {
+            int updated = jdbcTemplate.update(
+                    "UPDATE pan_block_counter SET next_offset = next_offset + ? WHERE bin = ? AND next_offset < ?",
+                    blockSize, range.bin, range.capacity);
+            if (updated == 1) {
+                return jdbcTemplate.queryForObject(
+                        "SELECT next_offset FROM pan_block_counter WHERE bin = ?", Long.class, range.bin);
+            }
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_offset FROM pan_block_counter WHERE bin = ?", Long.class, range.bin);
+            if (!current.isEmpty()) {
+                if (current.get(0) >= range.capacity) {
+                    return null;
+                }
+                // The row was created by another node after our update ran; try the update again.
+                continue;
+            }
+            try {
+                jdbcTemplate.update("INSERT INTO pan_block_counter (bin, next_offset) VALUES (?, ?)", range.bin, blockSize);
+                return (long) blockSize;
+            } catch (DataIntegrityViolationException ex) {
+                // Another node created the row first; lease from it like any other.
+            }
+        }
+    }
+
+    private record Block(Range range, long start, long end, AtomicLong next) {
+
+        private Block(Range range, long start, long end) {
+            this(range, start, end, new AtomicLong(start));
+        }
+    }
+
+    private static final class Range {
+
+        private final String bin;
+        private final int accountDigits;
+        private final long capacity;
+        private final long multiplier;
+
+        private Range(String bin, long multiplier) {
+            if (bin == null || bin.length() < 6 || bin.length() > 8 || !bin.chars().allMatch(Character::isDigit)) {
+                throw new IllegalArgumentException("BIN must be 6 to 8 digits: " + bin);
+            }
+            this.bin = bin;
+            this.accountDigits = PAN_LENGTH - 1 - bin.length();
+            this.capacity = (long) Math.pow(10, accountDigits);
+            this.multiplier = multiplier % capacity;
+        }
+
+        private String format(long index) {
+            // index * multiplier stays below 2^63 for up to 9 account digits.
+            long account = index * multiplier % capacity;
+            char[] digits = new char[PAN_LENGTH];
+            bin.getChars(0, bin.length(), digits, 0);
+            for (int i = PAN_LENGTH - 2; i >= bin.length(); i--) {
+                digits[i] = (char) ('0' + account % 10);
+                account /= 10;
+            }
+            digits[PAN_LENGTH - 1] = (char) ('0' + Luhn.checkDigit(CharBuffer.wrap(digits, 0, PAN_LENGTH - 1)));
+            return new String(digits);
+        }
+    }
+}
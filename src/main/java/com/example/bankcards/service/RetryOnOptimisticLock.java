@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Replays a transactional service method when its commit loses an optimistic lock race.
+ * The method must start its own transaction: the retry wraps the transaction boundary and is
+ * skipped when the call joins an outer transaction.
+ *
+ * @see com.example.bankcards.config.OptimisticLockRetryAspect
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * Total number of attempts including the first one; {@code 0} uses the configured default.
+     */
+    int maxAttempts() default 0;
+}
@@ -0,0 +1,195 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.util.ShardContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reads a page of rows that may live on any shard.
+ * <p>
+ * Every shard is asked in parallel for the first {@code offset + size} rows in the requested
+ * order, with the id appended as a tie-breaker, and the shard results are merged in memory and cut
+ * to the requested page; totals are the sum of the shard totals. Rows may be entities, records or
+ * tuples aliased by property name, and are mapped inside the read transaction of their shard so
+ * lazy associations can still load. The merge compares values the way the database orders them:
+ * nulls first, enums by name, text ignoring case and ids as unsigned bytes. Deep pages cost
+ * {@code offset} extra rows per shard, so the admin listings that use this are meant to be paged
+ * near the front. With a single shard the query simply runs once.
+ */
+@Component
+public class ScatterGather {
+
+    private static final Comparator<Object> VALUE_ORDER = Comparator.nullsFirst(ScatterGather::compareValues);
+
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate readTransaction;
+    private final Executor executor;
+
+    @Autowired
+    public ScatterGather(ShardTopology shardTopology, PlatformTransactionManager transactionManager) {
+        this(shardTopology, transactionManager, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "scatter-gather");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ScatterGather(ShardTopology shardTopology, PlatformTransactionManager transactionManager, Executor executor) {
+        this.shardTopology = shardTopology;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    /**
+     * Runs {@code query} on every shard and returns the requested page of the merged results.
+     */
+    public <E, R> Page<R> page(Pageable pageable, Function<Pageable, Page<E>> query, Function<E, R> mapper) {
+        if (!shardTopology.isSharded()) {
+            return readTransaction.execute(status -> query.apply(pageable).map(mapper));
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort()
+                : pageable.getSort().and(Sort.by("id"));
+        Pageable shardPageable = pageable.isPaged()
+                ? PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+
+        List<CompletableFuture<ShardPage<R>>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardTopology.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> read(target,
+                    () -> fetch(query.apply(shardPageable), sort, mapper)), executor));
+        }
+
+        List<Row<R>> rows = new ArrayList<>();
+        long total = 0;
+        try {
+            for (CompletableFuture<ShardPage<R>> future : futures) {
+                ShardPage<R> shardPage = future.join();
+                rows.addAll(shardPage.rows());
+                total += shardPage.total();
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        rows.sort(rowOrder(sort));
+
+        List<R> content = rows.stream()
+                .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .map(Row::value)
+                .toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Runs {@code action} in a read-only transaction on one shard.
+     */
+    public <T> T read(int shard, Supplier<T> action) {
+        if (!shardTopology.isSharded()) {
+            return readTransaction.execute(status -> action.get());
+        }
+        return ShardContext.callOn(shard, () -> readTransaction.execute(status -> action.get()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static <E, R> ShardPage<R> fetch(Page<E> page, Sort sort, Function<E, R> mapper) {
+        List<Row<R>> rows = new ArrayList<>(page.getNumberOfElements());
+        for (E element : page) {
+            List<Object> keys = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                keys.add(property(element, order.getProperty()));
+            }
+            rows.add(new Row<>(keys, mapper.apply(element)));
+        }
+        return new ShardPage<>(rows, page.getTotalElements());
+    }
+
+    private static Object property(Object element, String path) {
+        if (element instanceof Tuple tuple) {
+            return tuple.get(path);
+        }
+        if (element instanceof Record && !path.contains(".")) {
+            for (RecordComponent component : element.getClass().getRecordComponents()) {
+                if (component.getName().equals(path)) {
+                    try {
+                        return component.getAccessor().invoke(element);
+                    } catch (ReflectiveOperationException ex) {
+                        throw new IllegalStateException("Cannot read " + path + " of " + element.getClass(), ex);
+                    }
+                }
+            }
+        }
+        return PropertyAccessorFactory.forBeanPropertyAccess(element).getPropertyValue(path);
+    }
+
+    private static <R> Comparator<Row<R>> rowOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return (left, right) -> {
+            for (int i = 0; i < orders.size(); i++) {
+                int result = VALUE_ORDER.compare(left.keys().get(i), right.keys().get(i));
+                if (result != 0) {
+                    return orders.get(i).isAscending() ? result : -result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right) {
+        if (left instanceof UUID leftId && right instanceof UUID rightId) {
+            int result = Long.compareUnsigned(leftId.getMostSignificantBits(), rightId.getMostSignificantBits());
+            return result != 0
+                    ? result
+                    : Long.compareUnsigned(leftId.getLeastSignificantBits(), rightId.getLeastSignificantBits());
+        }
+        if (left instanceof Enum<?> leftEnum && right instanceof Enum<?> rightEnum) {
+            return leftEnum.name().compareTo(rightEnum.name());
+        }
+        if (left instanceof String leftText && right instanceof String rightText) {
+            return String.CASE_INSENSITIVE_ORDER.compare(leftText, rightText);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private record Row<R>(List<Object> keys, R value) {
+    }
+
+    private record ShardPage<R>(List<Row<R>> rows, long total) {
+    }
+}
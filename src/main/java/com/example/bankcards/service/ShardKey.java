@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the service method on the shard of the annotated parameter, which must be the first one.
+ * A {@link java.util.UUID} is a user or card id and a {@link String} is a username; the value may
+ * also be read from a property of the parameter.
+ *
+ * @see com.example.bankcards.config.ShardRoutingAspect
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ShardKey {
+
+    /**
+     * Property of the parameter holding the key; empty to use the parameter itself.
+     */
+    String value() default "";
+}
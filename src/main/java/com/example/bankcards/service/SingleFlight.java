@@ -0,0 +1,24 @@
+package com.example.bankcards.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Collapses concurrent identical calls of a read-only service method into one: a call made while
+ * an equal call is still running waits for it and returns the same result, or fails with the
+ * same exception. Calls are equal when they have the same arguments, come from the same
+ * authenticated user and run on the same shard, so results are never shared between users.
+ * <p>
+ * Nothing is kept once the running call returns. A call that joins may therefore see data read
+ * up to one query duration before it was made, as if it had arrived that much earlier. The
+ * result is shared, so callers must not modify it. The method must start its own transaction;
+ * calls that join an outer transaction are never collapsed.
+ *
+ * @see com.example.bankcards.config.SingleFlightAspect
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SingleFlight {
+}
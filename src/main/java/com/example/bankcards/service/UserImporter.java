@@ -0,0 +1,301 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.config.UserImportProperties;
+import com.example.bankcards.dto.UserImportResponse;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from a CSV stream with a {@code username,password} header.
+ * <p>
+ * The stream is read in chunks so memory stays flat whatever the upload size. For each chunk the
+ * rows are validated, usernames repeated within the chunk or already present are rejected with one
+ * {@code IN} query, passwords are hashed in parallel on a dedicated pool, and the chunk is inserted
+ * with a JDBC batch in its own transaction. Chunks commit independently, so users imported before
+ * a failure stay imported. Rejected rows are reported by line number instead of failing the import.
+ */
+@Component
+@EnableConfigurationProperties(UserImportProperties.class)
+public class UserImporter {
+
+    private static final String HEADER = "username,password";
+    private static final int MAX_USERNAME_LENGTH = 255;
+    private static final int MIN_PASSWORD_LENGTH = 6;
+    // A username registered concurrently fails the whole batch; the chunk is re-checked and retried.
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+    private static final String INSERT_SQL = "INSERT INTO users "
+            + "(id, username, password, role, status, version) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ShardTopology shardTopology;
+    private final AuditLog auditLog;
+    private final DashboardStats dashboardStats;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashingPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public UserImporter(PasswordEncoder passwordEncoder,
+                        ShardTopology shardTopology,
+                        AuditLog auditLog,
+                        DashboardStats dashboardStats,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        UserImportProperties properties) {
+        if (properties.getChunkSize() < 1) {
+            throw new IllegalArgumentException("User import chunk size must be positive");
+        }
+        this.passwordEncoder = passwordEncoder;
+        this.shardTopology = shardTopology;
+        this.auditLog = auditLog;
+        this.dashboardStats = dashboardStats;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = new ForkJoinPool(properties.getHashingThreads() > 0
+                ? properties.getHashingThreads()
+                : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = properties.getChunkSize();
+        this.maxReportedErrors = properties.getMaxReportedErrors();
+    }
+
+    /**
+     * Reads the whole stream and returns how many users were imported and which rows were rejected.
+     */
+    public UserImportResponse importCsv(InputStream csv) {
+        UserImportResponse response = new UserImportResponse();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !HEADER.equalsIgnoreCase(header.strip())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "The first line must be the header '" + HEADER + "'.");
+            }
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row = parse(lineNumber, line, response);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, response);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, response);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read the user import stream", ex);
+        } finally {
+            if (response.getImported() > 0 || response.getRejected() > 0) {
+                auditLog.record(AuditLog.Action.USERS_IMPORTED, null,
+                        response.getImported() + " imported, " + response.getRejected() + " rejected");
+            }
+        }
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private Row parse(int lineNumber, String line, UserImportResponse response) {
+        List<String> fields = splitCsv(line);
+        if (fields == null || fields.size() != 2) {
+            reject(response, lineNumber, null, "Expected exactly two fields: username and password.");
+            return null;
+        }
+        String username = fields.get(0).strip();
+        String password = fields.get(1);
+        if (username.isEmpty() || username.length() > MAX_USERNAME_LENGTH) {
+            reject(response, lineNumber, username, "Username must be 1 to " + MAX_USERNAME_LENGTH + " characters long.");
+            return null;
+        }
+        if (password.length() < MIN_PASSWORD_LENGTH) {
+            reject(response, lineNumber, username, "Password must be at least " + MIN_PASSWORD_LENGTH + " characters long.");
+            return null;
+        }
+        return new Row(lineNumber, username, password);
+    }
+
+    private void importChunk(List<Row> chunk, UserImportResponse response) {
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        for (Row row : chunk) {
+            if (seen.add(uniqueKey(row.username))) {
+                fresh.add(row);
+            } else {
+                reject(response, row.line, row.username, "Username appears earlier in the file.");
+            }
+        }
+        // A username decides the shard of its user, so every shard checks and stores its own rows.
+        fresh.stream()
+                .collect(Collectors.groupingBy(row -> shardTopology.shardOf(row.username)))
+                .forEach((shard, rows) -> ShardContext.runOn(shard, () -> importRows(rows, response)));
+    }
+
+    private void importRows(List<Row> rows, UserImportResponse response) {
+        List<Row> fresh = withoutExisting(rows, response);
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<Row> hashed = fresh;
+        hashingPool.submit(() -> hashed.parallelStream()
+                .forEach(row -> row.passwordHash = passwordEncoder.encode(row.password))).join();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(fresh);
+                response.setImported(response.getImported() + fresh.size());
+                return;
+            } catch (DuplicateKeyException ex) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw ex;
+                }
+                fresh = withoutExisting(fresh, response);
+            }
+        }
+    }
+
+    private List<Row> withoutExisting(List<Row> rows, UserImportResponse response) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        // Matched with the column's collation, so a stored name differing only in case comes back too.
+        Set<String> existing = namedJdbcTemplate.queryForList(
+                        "SELECT username FROM users WHERE username IN (:usernames)",
+                        Map.of("usernames", rows.stream().map(row -> row.username).toList()),
+                        String.class).stream()
+                .map(UserImporter::uniqueKey)
+                .collect(Collectors.toSet());
+        if (existing.isEmpty()) {
+            return rows;
+        }
+        List<Row> remaining = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(uniqueKey(row.username))) {
+                reject(response, row.line, row.username, "Username is already taken.");
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private void insert(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+                statement.setBytes(1, UuidBytes.toBytes(UuidV7Generator.forUsername(row.username)));
+                statement.setString(2, row.username);
+                statement.setString(3, row.passwordHash);
+                statement.setString(4, Role.USER.name());
+                statement.setString(5, UserStatus.ACTIVE.name());
+                statement.setLong(6, 0L);
+            });
+            dashboardStats.activeUsersChanged(rows.size());
+        });
+    }
+
+    /**
+     * The unique index on {@code users.username} ignores case, so names are compared the same way.
+     */
+    private static String uniqueKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private void reject(UserImportResponse response, int line, String username, String reason) {
+        response.setRejected(response.getRejected() + 1);
+        if (response.getErrors().size() < maxReportedErrors) {
+            response.getErrors().add(new UserImportResponse.RowError(line, username, reason));
+        }
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields with {@code ""} escapes. Returns
+     * {@code null} for an unterminated quote.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Row {
+
+        private final int line;
+        private final String username;
+        private final String password;
+        private String passwordHash;
+
+        private Row(int line, String username, String password) {
+            this.line = line;
+            this.username = username;
+            this.password = password;
+        }
+    }
+}
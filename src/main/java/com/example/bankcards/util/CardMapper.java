@@ -1,9 +1,21 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.dto.CardFields;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardView;
+import com.example.bankcards.dto.UserResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.repository.CardSearchRow;
+import jakarta.persistence.Tuple;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
 @Component
 public class CardMapper {
 
@@ -30,4 +42,68 @@ public class CardMapper {
 
         return response;
     }
+
+    public CardResponse toCardResponse(CardSearchRow row) {
+        CardResponse response = new CardResponse();
+        response.setId(row.id());
+        response.setCardNumberMasked(CardMasker.maskCardNumber(EncryptionUtil.decrypt(row.cardNumber())));
+        response.setExpiryDate(row.expiryDate().toString());
+        response.setStatus(row.status().name());
+        response.setBalance(row.balance());
+
+        UserResponse owner = new UserResponse();
+        owner.setId(row.ownerId());
+        owner.setUsername(row.ownerUsername());
+        owner.setRole(row.ownerRole().name());
+        owner.setStatus(row.ownerStatus().name());
+        response.setOwner(owner);
+        return response;
+    }
+
+    /**
+     * Maps a row read by {@code CardSearchRepository.findFields}, producing only the selected
+     * fields; the rest stay {@code null} and are left out of the response.
+     */
+    public CardResponse toCardResponse(Tuple row, CardFields fields) {
+        CardResponse response = new CardResponse();
+        response.setId(row.get("id", UUID.class));
+        if (fields.has("cardNumberMasked")) {
+            String decryptedCardNumber = EncryptionUtil.decrypt(row.get("cardNumber", String.class));
+            response.setCardNumberMasked(CardMasker.maskCardNumber(decryptedCardNumber));
+        }
+        if (fields.has("expiryDate")) {
+            response.setExpiryDate(row.get("expiryDate", LocalDate.class).toString());
+        }
+        if (fields.has("status")) {
+            response.setStatus(row.get("status", CardStatus.class).name());
+        }
+        if (fields.has("balance")) {
+            response.setBalance(row.get("balance", BigDecimal.class));
+        }
+
+        if (fields.hasOwner()) {
+            UserResponse owner = new UserResponse();
+            owner.setId(row.get("ownerId", UUID.class));
+            if (fields.hasOwner("username")) {
+                owner.setUsername(row.get("ownerUsername", String.class));
+            }
+            if (fields.hasOwner("role")) {
+                owner.setRole(row.get("ownerRole", Role.class).name());
+            }
+            if (fields.hasOwner("status")) {
+                owner.setStatus(row.get("ownerStatus", UserStatus.class).name());
+            }
+            response.setOwner(owner);
+        }
+        return response;
+    }
+
+    public CardView toCardView(Card card) {
+        long ownerVersion = card.getOwner() != null ? versionOf(card.getOwner().getVersion()) : 0;
+        return CardView.of(toCardResponse(card), versionOf(card.getVersion()), ownerVersion);
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.bankcards.util;
+
+public final class Luhn {
+
+    private Luhn() {
+    }
+
+    /**
+     * Returns the check digit to append to {@code digits}, a string of decimal digits without it.
+     */
+    public static int checkDigit(CharSequence digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String number) {
+        if (number == null || number.length() < 2 || !number.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = number.length() - 1;
+        return checkDigit(number.subSequence(0, last)) == number.charAt(last) - '0';
+    }
+}
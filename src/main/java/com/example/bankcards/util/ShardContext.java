@@ -0,0 +1,86 @@
+package com.example.bankcards.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Holds the shard the current thread works on, read by
+ * {@link com.example.bankcards.config.ShardRoutingDataSource} when a connection is needed.
+ * <p>
+ * A user lives on the shard given by the low 16 bits of their id, and those bits are derived from
+ * the username when the id is generated, so a user can be found by id or by username without a
+ * directory. Cards copy the bits of their owner's id and therefore live on the owner's shard.
+ * Which shard the bits select depends on the number of shards, which
+ * {@link com.example.bankcards.config.ShardTopology} knows. Without sharding, binding a shard has
+ * no effect.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    private static final int KEY_MASK = 0xFFFF;
+
+    private ShardContext() {
+    }
+
+    /**
+     * The 16 bits of a username that its user id carries. Computed on the lower-cased name, since
+     * the unique index on usernames ignores case and can only reject names on the same shard.
+     */
+    public static int keyBits(String username) {
+        CRC32 crc = new CRC32();
+        crc.update(username.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() & KEY_MASK);
+    }
+
+    public static int keyBits(UUID id) {
+        return (int) (id.getLeastSignificantBits() & KEY_MASK);
+    }
+
+    /**
+     * The shard bound to this thread, or the first shard if none is.
+     */
+    public static int currentShard() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Binds {@code shard} to this thread until the returned scope is closed. A transaction stays on
+     * the shard that was bound when it ran its first statement.
+     */
+    public static Scope use(int shard) {
+        if (shard < 0) {
+            throw new IllegalArgumentException("No shard " + shard);
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        try (Scope ignored = use(shard)) {
+            return action.get();
+        }
+    }
+
+    public static void runOn(int shard, Runnable action) {
+        try (Scope ignored = use(shard)) {
+            action.run();
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
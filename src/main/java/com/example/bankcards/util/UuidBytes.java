@@ -0,0 +1,32 @@
+package com.example.bankcards.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Converts ids to and from the {@code BINARY(16)} form used by the id columns, for code that
+ * writes through JDBC instead of Hibernate.
+ */
+public final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    public static byte[] toBytes(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
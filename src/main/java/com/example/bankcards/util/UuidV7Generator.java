@@ -0,0 +1,71 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDv7 identifiers (RFC 9562).
+ * <p>
+ * The first 48 bits hold the Unix timestamp in milliseconds, followed by a 12-bit
+ * counter that keeps ids monotonic within the same millisecond on this node, so new
+ * rows are always appended to the right edge of the clustered index.
+ * <p>
+ * The low 16 random bits can carry a shard key instead: user ids carry the bits of the username
+ * and card ids copy the bits of their owner's id, see {@link ShardContext}.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+
+    public static UUID generate() {
+        long next = LAST_TIMESTAMP_AND_SEQUENCE.updateAndGet(
+                last -> Math.max(last + 1, System.currentTimeMillis() << 12));
+        long millis = next >>> 12;
+        long sequence = next & 0xFFFL;
+
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Generates an id whose low 16 bits are {@code keyBits}.
+     */
+    public static UUID generate(int keyBits) {
+        UUID id = generate();
+        return new UUID(id.getMostSignificantBits(), (id.getLeastSignificantBits() & ~0xFFFFL) | (keyBits & 0xFFFFL));
+    }
+
+    public static UUID forUsername(String username) {
+        return generate(ShardContext.keyBits(username));
+    }
+
+    public static UUID colocatedWith(UUID ownerId) {
+        return generate(ShardContext.keyBits(ownerId));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (owner instanceof User user && user.getUsername() != null) {
+            return forUsername(user.getUsername());
+        }
+        if (owner instanceof Card card && card.getOwner() != null && card.getOwner().getId() != null) {
+            return colocatedWith(card.getOwner().getId());
+        }
+        return generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
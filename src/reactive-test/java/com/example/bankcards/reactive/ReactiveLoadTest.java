@@ -0,0 +1,213 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.BankcardsApplication;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.UuidBytes;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the servlet application and the reactive read API side by side on one embedded database,
+ * checks that they answer the same reads identically, and puts the same concurrent load on each
+ * in turn. The throughput and latencies are only logged; every response must succeed.
+ * <p>
+ * Both servers, the client and the database share this JVM, and the in-memory database answers
+ * without the network wait the reactive stack is meant to hide, so the numbers compare overheads
+ * rather than predict production gains.
+ * <p>
+ * Takes about a minute and a half, so the {@code reactive} profile leaves the {@code benchmark}
+ * tag out of {@code mvn test}; run it with {@code -Dtest=ReactiveLoadTest -DexcludedGroups=}.
+ */
+@Tag("benchmark")
+public class ReactiveLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveLoadTest.class);
+    private static final String DATABASE = "reactive-load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final int USERS = 200;
+    private static final int CARDS_PER_USER = 10;
+    private static final int CONCURRENCY = 64;
+    private static final int WARMUP_REQUESTS = 300;
+    private static final int REQUESTS = 1_000;
+
+    private static ConfigurableApplicationContext servlet;
+    private static ConfigurableApplicationContext reactive;
+    private static WebClient servletClient;
+    private static WebClient reactiveClient;
+    private static final List<String> userTokens = new ArrayList<>();
+    private static String adminToken;
+
+    @BeforeAll
+    static void startApplications() {
+        servlet = new SpringApplicationBuilder(BankcardsApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + DATABASE,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--rate-limit.enabled=false");
+        reactive = ReactiveReadApplication.application().run(
+                "--server.port=0",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + DATABASE.replaceFirst(";", "?options="),
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=");
+        servletClient = client(servlet);
+        reactiveClient = client(reactive);
+
+        seed(servlet.getBean(JdbcTemplate.class), servlet.getBean(JwtTokenProvider.class));
+    }
+
+    @AfterAll
+    static void stopApplications() {
+        if (reactive != null) {
+            reactive.close();
+        }
+        if (servlet != null) {
+            servlet.close();
+        }
+    }
+
+    @Test
+    void testReads_AnsweredIdentically() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String uri : List.of("/api/cards?sort=id",
+                "/api/cards?sort=balance,desc&ownerRefs=true&size=3&page=1")) {
+            assertEquals(objectMapper.readTree(read(servletClient, uri, userTokens.get(0))),
+                    objectMapper.readTree(read(reactiveClient, uri, userTokens.get(0))), uri);
+        }
+        for (String uri : List.of("/api/admin/cards?sort=id&size=50&page=3", "/api/admin/users?sort=username")) {
+            assertEquals(objectMapper.readTree(read(servletClient, uri, adminToken)),
+                    objectMapper.readTree(read(reactiveClient, uri, adminToken)), uri);
+        }
+        JsonNode page = objectMapper.readTree(read(reactiveClient, "/api/cards", userTokens.get(0)));
+        String cardId = page.get("content").get(0).get("id").asText();
+        assertEquals(objectMapper.readTree(read(servletClient, "/api/cards/" + cardId, userTokens.get(0))),
+                objectMapper.readTree(read(reactiveClient, "/api/cards/" + cardId, userTokens.get(0))));
+    }
+
+    /**
+     * Each user lists their own cards, spread over all users, then an admin pages through all
+     * cards; {@value #CONCURRENCY} requests are in flight at a time.
+     */
+    @Test
+    void testLoad_ServletAgainstReactive() {
+        for (String name : List.of("servlet", "reactive")) {
+            WebClient client = name.equals("servlet") ? servletClient : reactiveClient;
+            load(client, WARMUP_REQUESTS, i -> "/api/cards?size=10", i -> userTokens.get(i % USERS));
+            Result cards = load(client, REQUESTS, i -> "/api/cards?size=10", i -> userTokens.get(i % USERS));
+            load(client, WARMUP_REQUESTS, i -> adminPage(i), i -> adminToken);
+            Result admin = load(client, REQUESTS, i -> adminPage(i), i -> adminToken);
+
+            logger.info("{} GET /api/cards: {}", name, cards);
+            logger.info("{} GET /api/admin/cards: {}", name, admin);
+            assertEquals(REQUESTS, cards.succeeded());
+            assertEquals(REQUESTS, admin.succeeded());
+        }
+    }
+
+    private static String adminPage(int i) {
+        return "/api/admin/cards?size=20&sort=id&page=" + i % (USERS * CARDS_PER_USER / 20);
+    }
+
+    private static Result load(WebClient client, int requests, IntFunction<String> uri, IntFunction<String> token) {
+        long started = System.nanoTime();
+        List<Long> latencies = Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    long sent = System.nanoTime();
+                    return client.get().uri(uri.apply(i))
+                            .header("Authorization", "Bearer " + token.apply(i))
+                            .retrieve()
+                            .toBodilessEntity()
+                            .map(response -> System.nanoTime() - sent);
+                }), CONCURRENCY)
+                .collectList()
+                .block(Duration.ofMinutes(5));
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted.length, sorted.length / seconds,
+                percentile(sorted, 0.5), percentile(sorted, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static WebClient client(ConfigurableApplicationContext application) {
+        return WebClient.create("http://localhost:" + application.getEnvironment().getProperty("local.server.port"));
+    }
+
+    private static String read(WebClient client, String uri, String token) {
+        return client.get().uri(uri)
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, JwtTokenProvider tokenProvider) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> cards = new ArrayList<>();
+        Date expiryDate = Date.valueOf(LocalDate.of(2029, 12, 31));
+        for (int u = 0; u < USERS; u++) {
+            UUID userId = UUID.randomUUID();
+            users.add(new Object[]{UuidBytes.toBytes(userId), "load-user-" + u, "USER"});
+            userTokens.add(tokenProvider.generateAccessToken(user(userId)));
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                String cardNumber = String.format("4000%012d", u * CARDS_PER_USER + c);
+                cards.add(new Object[]{UuidBytes.toBytes(UUID.randomUUID()), EncryptionUtil.encrypt(cardNumber),
+                        expiryDate, BigDecimal.valueOf(c * 100L, 2), UuidBytes.toBytes(userId)});
+            }
+        }
+        UUID adminId = UUID.randomUUID();
+        users.add(new Object[]{UuidBytes.toBytes(adminId), "load-admin", "ADMIN"});
+        adminToken = tokenProvider.generateAccessToken(user(adminId));
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password, role, status, version)"
+                + " VALUES (?, ?, 'password', ?, 'ACTIVE', 0)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO cards (id, card_number, expiry_date, status, balance, user_id, version)"
+                + " VALUES (?, ?, ?, 'ACTIVE', ?, ?, 0)", cards);
+        logger.info("Seeded {} users with {} cards each", USERS, CARDS_PER_USER);
+    }
+
+    private static User user(UUID id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private record Result(int succeeded, double requestsPerSecond, double p50Millis, double p99Millis) {
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %.0f req/s, p50 %.2f ms, p99 %.2f ms",
+                    succeeded, requestsPerSecond, p50Millis, p99Millis);
+        }
+    }
+}
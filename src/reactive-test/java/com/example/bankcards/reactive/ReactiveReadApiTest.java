@@ -0,0 +1,188 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.UuidBytes;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@SpringBootTest(classes = ReactiveReadApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-read"
+                        + "?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password="
+        })
+@ActiveProfiles(ReactiveReadApplication.PROFILE)
+public class ReactiveReadApiTest {
+
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:reactive-read;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private UUID aliceId;
+    private UUID bobId;
+    private UUID adminId;
+    private UUID aliceCardId;
+    private UUID aliceDeletedCardId;
+    private UUID bobCardId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(), JDBC_URL, "sa", "");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/migration/db.migration-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM cards");
+        jdbcTemplate.update("DELETE FROM users WHERE username <> 'admin'");
+        aliceId = insertUser("alice", "USER", "ACTIVE");
+        bobId = insertUser("bob", "USER", "ACTIVE");
+        adminId = insertUser("root", "ADMIN", "ACTIVE");
+        aliceCardId = insertCard(aliceId, "4000001234567899", "ACTIVE", "100.00");
+        insertCard(aliceId, "4000001234560001", "BLOCKED", "250.00");
+        aliceDeletedCardId = insertCard(aliceId, "4000001234560002", "DELETED", "0.00");
+        bobCardId = insertCard(bobId, "4000001234560003", "ACTIVE", "75.00");
+    }
+
+    @Test
+    void testGetMyCards_ListsOwnCardsWithoutDeleted() {
+        get("/api/cards?sort=balance,desc", aliceId)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(2)
+                .jsonPath("$.size").isEqualTo(20)
+                .jsonPath("$.content[0].balance").isEqualTo(250.00)
+                .jsonPath("$.content[1].id").isEqualTo(aliceCardId.toString())
+                .jsonPath("$.content[1].cardNumberMasked").isEqualTo("**** **** **** 7899")
+                .jsonPath("$.content[1].owner.username").isEqualTo("alice");
+    }
+
+    @Test
+    void testGetMyCards_OwnerRefs_ListsOwnerOnce() {
+        get("/api/cards?ownerRefs=true&size=1", aliceId)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.content[0].owner").doesNotExist()
+                .jsonPath("$.content[0].ownerId").isEqualTo(aliceId.toString())
+                .jsonPath("$.owners[0].username").isEqualTo("alice");
+    }
+
+    @Test
+    void testGetCardById_OwnOtherAndDeleted() {
+        get("/api/cards/" + aliceCardId, aliceId)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("ACTIVE");
+        get("/api/cards/" + bobCardId, aliceId)
+                .expectStatus().isForbidden()
+                .expectBody(String.class).isEqualTo("Access denied");
+        get("/api/cards/" + aliceDeletedCardId, aliceId)
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Card not found");
+    }
+
+    @Test
+    void testAuthentication_MatchesServletApplication() {
+        webTestClient.get().uri("/api/cards").exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/cards").header("Authorization", "Bearer not-a-token").exchange()
+                .expectStatus().isUnauthorized();
+        get("/api/admin/cards", aliceId)
+                .expectStatus().isForbidden();
+        get("/api/cards", adminId)
+                .expectStatus().isForbidden();
+
+        jdbcTemplate.update("UPDATE users SET status = 'BLOCKED' WHERE id = ?", (Object) UuidBytes.toBytes(aliceId));
+        get("/api/cards", aliceId)
+                .expectStatus().isForbidden()
+                .expectBody().jsonPath("$.error").isEqualTo("User account is inactive.");
+    }
+
+    @Test
+    void testAdminListings() {
+        get("/api/admin/cards?sort=balance", adminId)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(4)
+                .jsonPath("$.content[0].status").isEqualTo("DELETED");
+        get("/api/admin/users?sort=username&size=2", adminId)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(4)
+                .jsonPath("$.content[0].username").isEqualTo("admin")
+                .jsonPath("$.content[1].username").isEqualTo("alice");
+        get("/api/admin/users/" + bobId + "/cards", adminId)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.content[0].id").isEqualTo(bobCardId.toString());
+        get("/api/admin/users/" + UUID.randomUUID() + "/cards", adminId)
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testBadParameters_Rejected() {
+        get("/api/admin/cards?sort=cardNumber", adminId)
+                .expectStatus().isBadRequest();
+        get("/api/cards?fields=status", aliceId)
+                .expectStatus().isBadRequest();
+        get("/api/cards/not-a-uuid", aliceId)
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private WebTestClient.ResponseSpec get(String uri, UUID userId) {
+        User user = new User();
+        user.setId(userId);
+        return webTestClient.get().uri(uri)
+                .header("Authorization", "Bearer " + tokenProvider.generateAccessToken(user))
+                .exchange();
+    }
+
+    private static UUID insertUser(String username, String role, String status) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, status, version)"
+                        + " VALUES (?, ?, ?, ?, ?, 0)",
+                UuidBytes.toBytes(id), username, "password", role, status);
+        return id;
+    }
+
+    private static UUID insertCard(UUID ownerId, String cardNumber, String status, String balance) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO cards (id, card_number, expiry_date, status, balance, user_id, version)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, 0)",
+                UuidBytes.toBytes(id), EncryptionUtil.encrypt(cardNumber), Date.valueOf(LocalDate.of(2029, 12, 31)),
+                status, new BigDecimal(balance), UuidBytes.toBytes(ownerId));
+        return id;
+    }
+}
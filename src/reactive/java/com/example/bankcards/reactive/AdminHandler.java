@@ -0,0 +1,61 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.dto.PagedResponse;
+import com.example.bankcards.util.CardMapper;
+import com.example.bankcards.util.UserMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The card and user listings of {@code AdminController}.
+ */
+@Component
+@Profile(ReactiveReadApplication.PROFILE)
+@RequiredArgsConstructor
+public class AdminHandler {
+
+    private final ReactiveCardRepository cardRepository;
+    private final ReactiveUserRepository userRepository;
+    private final CardMapper cardMapper;
+    private final UserMapper userMapper;
+
+    public Mono<ServerResponse> getAllCards(ServerRequest request) {
+        ServerRequests.rejectServletOnly(request, "ids", "fields");
+        Pageable pageable = ServerRequests.pageable(request);
+        boolean ownerRefs = ServerRequests.flag(request, "ownerRefs");
+
+        return cardRepository.findAll(pageable)
+                .map(cards -> PagedResponse.ofCards(cards.map(cardMapper::toCardResponse), ownerRefs))
+                .flatMap(cards -> ServerResponse.ok().bodyValue(cards));
+    }
+
+    public Mono<ServerResponse> getAllUsers(ServerRequest request) {
+        Pageable pageable = ServerRequests.pageable(request);
+
+        return userRepository.findAll(pageable)
+                .map(users -> PagedResponse.of(users.map(userMapper::toUserResponse)))
+                .flatMap(users -> ServerResponse.ok().bodyValue(users));
+    }
+
+    public Mono<ServerResponse> getCardsByUserId(ServerRequest request) {
+        ServerRequests.rejectServletOnly(request, "fields");
+        UUID userId = ServerRequests.uuid(request, "userId");
+        Pageable pageable = ServerRequests.pageable(request);
+        boolean ownerRefs = ServerRequests.flag(request, "ownerRefs");
+
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")))
+                .flatMap(user -> cardRepository.findByOwnerId(user.getId(), pageable))
+                .map(cards -> PagedResponse.ofCards(cards.map(cardMapper::toCardResponse), ownerRefs))
+                .flatMap(cards -> ServerResponse.ok().bodyValue(cards));
+    }
+}
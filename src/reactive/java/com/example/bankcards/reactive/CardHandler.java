@@ -0,0 +1,58 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.dto.PagedResponse;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.util.CardMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The current user's card reads of {@code CardController}.
+ */
+@Component
+@Profile(ReactiveReadApplication.PROFILE)
+@RequiredArgsConstructor
+public class CardHandler {
+
+    private final ReactiveCardRepository cardRepository;
+    private final CardMapper cardMapper;
+
+    public Mono<ServerResponse> getMyCards(ServerRequest request) {
+        ServerRequests.rejectServletOnly(request, "ids", "fields");
+        Pageable pageable = ServerRequests.pageable(request);
+        boolean ownerRefs = ServerRequests.flag(request, "ownerRefs");
+
+        return request.principal()
+                .flatMap(user -> cardRepository.findByOwnerUsernameAndStatusNot(
+                        user.getName(), CardStatus.DELETED, pageable))
+                .map(cards -> PagedResponse.ofCards(cards.map(cardMapper::toCardResponse), ownerRefs))
+                .flatMap(cards -> ServerResponse.ok().bodyValue(cards));
+    }
+
+    public Mono<ServerResponse> getCardById(ServerRequest request) {
+        UUID id = ServerRequests.uuid(request, "id");
+
+        return request.principal()
+                .flatMap(user -> cardRepository.findById(id)
+                        .filter(card -> card.status() != CardStatus.DELETED)
+                        .switchIfEmpty(Mono.error(
+                                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Card not found")))
+                        .handle((card, sink) -> {
+                            if (user.getName().equals(card.ownerUsername())) {
+                                sink.next(cardMapper.toCardResponse(card));
+                            } else {
+                                sink.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"));
+                            }
+                        }))
+                .flatMap(card -> ServerResponse.ok().bodyValue(card));
+    }
+}
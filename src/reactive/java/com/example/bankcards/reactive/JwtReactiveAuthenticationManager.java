@@ -0,0 +1,51 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.security.JwtTokenProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Authenticates a bearer token the way {@code JwtAuthenticationFilter} does: the token must be
+ * valid and name an existing user, who must be active. The user's role becomes the authority.
+ */
+@Component
+@Profile(ReactiveReadApplication.PROFILE)
+@RequiredArgsConstructor
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtTokenProvider tokenProvider;
+    private final ReactiveUserRepository userRepository;
+
+    /**
+     * @param authentication an unauthenticated token holding the JWT as its credentials
+     */
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String jwt = (String) authentication.getCredentials();
+        if (!tokenProvider.validateToken(jwt)) {
+            return Mono.error(new BadCredentialsException("Invalid JWT token"));
+        }
+
+        return userRepository.findById(tokenProvider.getUserIdFromJWT(jwt))
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("User not found")))
+                .handle((user, sink) -> {
+                    if (user.getStatus() != UserStatus.ACTIVE) {
+                        sink.error(new DisabledException("User account is inactive."));
+                        return;
+                    }
+                    sink.next(UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null,
+                            List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))));
+                });
+    }
+}
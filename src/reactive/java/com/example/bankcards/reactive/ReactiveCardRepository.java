@@ -0,0 +1,82 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.repository.CardSearchRow;
+import com.example.bankcards.util.UuidBytes;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads cards joined with their owners over R2DBC, as the {@link CardSearchRow}s that
+ * {@code CardMapper} maps for the servlet application's search.
+ */
+@Repository
+@Profile(ReactiveReadApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveCardRepository {
+
+    private static final String FROM = " FROM cards c JOIN users u ON u.id = c.user_id";
+    private static final String SELECT = "SELECT c.id, c.card_number, c.expiry_date, c.status, c.balance,"
+            + " u.id AS owner_id, u.username AS owner_username, u.role AS owner_role, u.status AS owner_status"
+            + FROM;
+    private static final String COUNT = "SELECT COUNT(*)" + FROM;
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "c.id",
+            "expiryDate", "c.expiry_date",
+            "status", "c.status",
+            "balance", "c.balance");
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<CardSearchRow> findById(UUID id) {
+        return databaseClient.sql(SELECT + " WHERE c.id = :id")
+                .bind("id", UuidBytes.toBytes(id))
+                .map(ReactiveCardRepository::toRow)
+                .one();
+    }
+
+    public Mono<Page<CardSearchRow>> findByOwnerUsernameAndStatusNot(String username, CardStatus status,
+                                                                     Pageable pageable) {
+        return page(" WHERE u.username = :username AND c.status <> :status",
+                Map.of("username", username, "status", status.name()), pageable);
+    }
+
+    public Mono<Page<CardSearchRow>> findByOwnerId(UUID ownerId, Pageable pageable) {
+        return page(" WHERE c.user_id = :ownerId", Map.of("ownerId", UuidBytes.toBytes(ownerId)), pageable);
+    }
+
+    public Mono<Page<CardSearchRow>> findAll(Pageable pageable) {
+        return page("", Map.of(), pageable);
+    }
+
+    private Mono<Page<CardSearchRow>> page(String where, Map<String, Object> params, Pageable pageable) {
+        return SqlPages.page(databaseClient, SELECT, COUNT, where, params, pageable, SORT_COLUMNS, "c.id",
+                ReactiveCardRepository::toRow);
+    }
+
+    private static CardSearchRow toRow(Readable row) {
+        return new CardSearchRow(
+                UuidBytes.fromBytes(row.get("id", byte[].class)),
+                row.get("card_number", String.class),
+                row.get("expiry_date", LocalDate.class),
+                CardStatus.valueOf(row.get("status", String.class)),
+                row.get("balance", BigDecimal.class),
+                UuidBytes.fromBytes(row.get("owner_id", byte[].class)),
+                row.get("owner_username", String.class),
+                Role.valueOf(row.get("owner_role", String.class)),
+                UserStatus.valueOf(row.get("owner_status", String.class)));
+    }
+}
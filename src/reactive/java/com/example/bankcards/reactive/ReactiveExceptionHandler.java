@@ -0,0 +1,38 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers failed reads with the status and plain text reason {@code GlobalExceptionHandler} gives.
+ * Runs before Boot's error handler, which still renders anything else.
+ */
+@Component
+@Profile(ReactiveReadApplication.PROFILE)
+@Order(-2)
+public class ReactiveExceptionHandler implements WebExceptionHandler {
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.error(ex);
+        }
+        if (ex instanceof ResponseStatusException statusException) {
+            String reason = statusException.getReason() != null ? statusException.getReason() : "";
+            return ReactiveSecurityConfig.write(exchange.getResponse(), statusException.getStatusCode(),
+                    MediaType.TEXT_PLAIN, reason);
+        }
+        if (ex instanceof IllegalArgumentException) {
+            return ReactiveSecurityConfig.write(exchange.getResponse(), HttpStatus.BAD_REQUEST, MediaType.TEXT_PLAIN,
+                    ex.getMessage());
+        }
+        return Mono.error(ex);
+    }
+}
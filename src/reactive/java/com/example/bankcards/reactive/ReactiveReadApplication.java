@@ -0,0 +1,60 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.util.CardMapper;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.UserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Read-only API on WebFlux and R2DBC for {@code GET /api/cards}, {@code GET /api/cards/{id}} and the
+ * admin listings, built with {@code mvn -Preactive}. It serves the same paths and responses as
+ * the servlet application and accepts its access tokens, so a proxy can send those reads here
+ * while the servlet application keeps every write and runs the migrations.
+ * <p>
+ * It reads one database, so it cannot run with sharding enabled.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@Import({JwtTokenProvider.class, EncryptionUtil.class, UserMapper.class, CardMapper.class})
+@Profile(ReactiveReadApplication.PROFILE)
+public class ReactiveReadApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public ReactiveReadApplication(@Value("${sharding.enabled:false}") boolean sharded) {
+        if (sharded) {
+            throw new IllegalStateException("The reactive read API reads a single database; disable sharding.");
+        }
+    }
+
+    public static void main(String[] args) {
+        application().run(args);
+    }
+
+    /**
+     * The servlet stack is on the classpath as well, so the web application type is set rather
+     * than deduced.
+     */
+    static SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE);
+    }
+
+    /**
+     * Declared so that Netty serves the application; Boot would otherwise pick Tomcat, which the
+     * servlet application brings along.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
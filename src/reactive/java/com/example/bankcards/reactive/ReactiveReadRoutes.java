@@ -0,0 +1,24 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+@Profile(ReactiveReadApplication.PROFILE)
+public class ReactiveReadRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> readRoutes(CardHandler cardHandler, AdminHandler adminHandler) {
+        return RouterFunctions.route()
+                .GET("/api/cards", cardHandler::getMyCards)
+                .GET("/api/cards/{id}", cardHandler::getCardById)
+                .GET("/api/admin/cards", adminHandler::getAllCards)
+                .GET("/api/admin/users", adminHandler::getAllUsers)
+                .GET("/api/admin/users/{userId}/cards", adminHandler::getCardsByUserId)
+                .build();
+    }
+}
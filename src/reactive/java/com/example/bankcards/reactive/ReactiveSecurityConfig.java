@@ -0,0 +1,91 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stateless bearer token security with the answers of {@code SecurityConfig}: 401 without a
+ * usable token, 403 for an inactive user or the wrong role.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveReadApplication.PROFILE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtReactiveAuthenticationManager authenticationManager) {
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(authenticationManager);
+        jwtFilter.setServerAuthenticationConverter(ReactiveSecurityConfig::bearerToken);
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        jwtFilter.setAuthenticationFailureHandler((filterExchange, ex) -> ex instanceof DisabledException
+                ? writeError(filterExchange.getExchange(), HttpStatus.FORBIDDEN, ex.getMessage())
+                : unauthorized(filterExchange.getExchange()));
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .pathMatchers("/api/admin/**").hasRole("ADMIN")
+                        .pathMatchers("/api/cards/**").hasRole("USER")
+                        .anyExchange().authenticated()
+                )
+                .exceptionHandling(handling -> handling
+                        .authenticationEntryPoint((exchange, ex) -> unauthorized(exchange))
+                        .accessDeniedHandler((exchange, ex) -> write(exchange.getResponse(), HttpStatus.FORBIDDEN,
+                                MediaType.TEXT_PLAIN, "Access is denied: You do not have the required permissions."))
+                )
+                .build();
+    }
+
+    private static Mono<Authentication> bearerToken(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(null, bearerToken.substring(7)));
+        }
+        return Mono.empty();
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange) {
+        return writeError(exchange, HttpStatus.UNAUTHORIZED,
+                "Unauthorized: Full authentication is required to access this resource.");
+    }
+
+    private static Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, String error) {
+        return write(exchange.getResponse(), status, MediaType.APPLICATION_JSON, "{\"error\": \"" + error + "\"}");
+    }
+
+    static Mono<Void> write(ServerHttpResponse response, HttpStatusCode status, MediaType contentType, String body) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(contentType);
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
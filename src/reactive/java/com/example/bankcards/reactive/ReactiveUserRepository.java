@@ -0,0 +1,58 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.util.UuidBytes;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads users over R2DBC. Only the columns a {@code UserResponse} and the token check need are
+ * read; the password and refresh token stay in the database.
+ */
+@Repository
+@Profile(ReactiveReadApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private static final String SELECT = "SELECT u.id, u.username, u.role, u.status FROM users u";
+    private static final String COUNT = "SELECT COUNT(*) FROM users u";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "u.id",
+            "username", "u.username",
+            "role", "u.role",
+            "status", "u.status");
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<User> findById(UUID id) {
+        return databaseClient.sql(SELECT + " WHERE u.id = :id")
+                .bind("id", UuidBytes.toBytes(id))
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Page<User>> findAll(Pageable pageable) {
+        return SqlPages.page(databaseClient, SELECT, COUNT, "", Map.of(), pageable, SORT_COLUMNS, "u.id",
+                ReactiveUserRepository::toUser);
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User();
+        user.setId(UuidBytes.fromBytes(row.get("id", byte[].class)));
+        user.setUsername(row.get("username", String.class));
+        user.setRole(Role.valueOf(row.get("role", String.class)));
+        user.setStatus(UserStatus.valueOf(row.get("status", String.class)));
+        return user;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads the parameters the servlet controllers get bound by Spring MVC, with the same defaults:
+ * {@code page} from 0, {@code size} 20 up to 2000, and {@code sort=property[,property...][,asc|desc]}.
+ */
+final class ServerRequests {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    private ServerRequests() {
+    }
+
+    static Pageable pageable(ServerRequest request) {
+        int page = Math.max(intParam(request, "page", 0), 0);
+        int size = intParam(request, "size", DEFAULT_PAGE_SIZE);
+        size = size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String sort : request.queryParams().getOrDefault("sort", List.of())) {
+            String[] parts = sort.split(",");
+            Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(parts[parts.length - 1].trim());
+            int properties = direction.isPresent() ? parts.length - 1 : parts.length;
+            for (int i = 0; i < properties; i++) {
+                if (!parts[i].isBlank()) {
+                    orders.add(new Sort.Order(direction.orElse(Sort.Direction.ASC), parts[i].trim()));
+                }
+            }
+        }
+        return PageRequest.of(page, size, Sort.by(orders));
+    }
+
+    static boolean flag(ServerRequest request, String name) {
+        return request.queryParam(name).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path variable is not a UUID
+     */
+    static UUID uuid(ServerRequest request, String name) {
+        return UUID.fromString(request.pathVariable(name));
+    }
+
+    /**
+     * Rejects the listing parameters only the servlet application serves, rather than answering
+     * with a response the client did not ask for.
+     *
+     * @throws IllegalArgumentException if the request has one of {@code names}
+     */
+    static void rejectServletOnly(ServerRequest request, String... names) {
+        for (String name : names) {
+            if (request.queryParam(name).isPresent()) {
+                throw new IllegalArgumentException(name + "= is not supported by the reactive read API.");
+            }
+        }
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        try {
+            return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.reactive;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Pages of rows read with plain SQL. The rows and the total are read at the same time, on two
+ * connections.
+ */
+final class SqlPages {
+
+    private SqlPages() {
+    }
+
+    /**
+     * Reads one page of {@code select} and counts {@code count}, both restricted by {@code where}.
+     *
+     * @param sortColumns the column for each property a page may be sorted by
+     * @param idColumn    the unique column that breaks ties, so that pages do not overlap
+     * @throws IllegalArgumentException if the page is sorted by another property
+     */
+    static <T> Mono<Page<T>> page(DatabaseClient databaseClient, String select, String count, String where,
+                                  Map<String, Object> params, Pageable pageable, Map<String, String> sortColumns,
+                                  String idColumn, Function<Readable, T> mapper) {
+        String orderBy = orderBy(pageable.getSort(), sortColumns, idColumn);
+        DatabaseClient.GenericExecuteSpec rows = bind(databaseClient.sql(select + where + orderBy
+                + " LIMIT :limit OFFSET :offset"), params)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        DatabaseClient.GenericExecuteSpec total = bind(databaseClient.sql(count + where), params);
+        return Mono.zip(rows.map(mapper).all().collectList(), total.map(row -> row.get(0, Long.class)).one())
+                .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                          Map<String, Object> params) {
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec;
+    }
+
+    private static String orderBy(Sort sort, Map<String, String> sortColumns, String idColumn) {
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = sortColumns.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException(
+                        "Invalid sort property. Please provide a valid property name for sorting");
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+            byId |= column.equals(idColumn);
+        }
+        if (!byId) {
+            orderBy.add(idColumn + " ASC");
+        }
+        return orderBy.toString();
+    }
+}
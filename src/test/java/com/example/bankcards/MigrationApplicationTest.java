@@ -0,0 +1,32 @@
+package com.example.bankcards;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationApplicationTest {
+
+    @Test
+    void testRun_AppliesChangelogOnly() {
+        try (ConfigurableApplicationContext context = MigrationApplication.run(
+                "--spring.datasource.url=jdbc:h2:mem:migrate;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.liquibase.enabled=false")) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE username = 'admin'", Integer.class));
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards", Integer.class));
+            assertEquals(0, context.getBeanNamesForType(EntityManagerFactory.class).length);
+            assertFalse(context instanceof WebServerApplicationContext);
+        }
+    }
+}
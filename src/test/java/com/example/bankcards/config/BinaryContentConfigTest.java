@@ -0,0 +1,102 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.PagedResponse;
+import com.example.bankcards.dto.UserResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryContentConfigTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryContentConfigTest.class);
+    private static final int PAGE_SIZE = 100;
+    private static final TypeReference<PagedResponse<CardResponse>> CARD_PAGE = new TypeReference<>() {
+    };
+
+    private final BinaryContentConfig config = new BinaryContentConfig();
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper();
+    private final ObjectMapper smile = config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper();
+
+    @Test
+    void testBinaryMappers_RoundTripCardPage() throws Exception {
+        PagedResponse<CardResponse> page = page(3);
+
+        assertEquals(page, cbor.readValue(cbor.writeValueAsBytes(page), CARD_PAGE));
+        assertEquals(page, smile.readValue(smile.writeValueAsBytes(page), CARD_PAGE));
+    }
+
+    /**
+     * Writes and reads back a page of 100 cards as JSON, CBOR and Smile. The timings are only
+     * logged; the sizes are asserted.
+     */
+    @Test
+    void testBenchmark_HundredCardPage() throws Exception {
+        PagedResponse<CardResponse> page = page(PAGE_SIZE);
+
+        Result jsonResult = measure("JSON", json, page);
+        Result cborResult = measure("CBOR", cbor, page);
+        Result smileResult = measure("Smile", smile, page);
+
+        assertTrue(cborResult.bytes() < jsonResult.bytes());
+        assertTrue(smileResult.bytes() < jsonResult.bytes());
+    }
+
+    private Result measure(String name, ObjectMapper mapper, PagedResponse<CardResponse> page) throws Exception {
+        int warmup = 2_000;
+        int iterations = 5_000;
+        byte[] bytes = mapper.writeValueAsBytes(page);
+        for (int i = 0; i < warmup; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(page), CARD_PAGE);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            mapper.writeValueAsBytes(page);
+        }
+        double writeMicros = (System.nanoTime() - started) / 1_000.0 / iterations;
+        started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            mapper.readValue(bytes, CARD_PAGE);
+        }
+        double readMicros = (System.nanoTime() - started) / 1_000.0 / iterations;
+        logger.info("{}: {} bytes, write {} us, read {} us per {}-card page", name, bytes.length,
+                String.format("%.1f", writeMicros), String.format("%.1f", readMicros), PAGE_SIZE);
+        return new Result(bytes.length, writeMicros, readMicros);
+    }
+
+    private static PagedResponse<CardResponse> page(int count) {
+        UserResponse owner = new UserResponse();
+        owner.setId(UUID.randomUUID());
+        owner.setUsername("user");
+        owner.setRole("USER");
+        owner.setStatus("ACTIVE");
+        List<CardResponse> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CardResponse card = new CardResponse();
+            card.setId(UUID.randomUUID());
+            card.setCardNumberMasked("**** **** **** " + (1000 + i));
+            card.setExpiryDate("2029-12-31");
+            card.setStatus("ACTIVE");
+            card.setBalance(new BigDecimal("1000.00"));
+            card.setOwner(owner);
+            cards.add(card);
+        }
+        return PagedResponse.of(new PageImpl<>(cards, PageRequest.of(0, count), 1_000));
+    }
+
+    private record Result(int bytes, double writeMicros, double readMicros) {
+    }
+}
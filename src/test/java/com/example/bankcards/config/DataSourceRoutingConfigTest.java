@@ -0,0 +1,64 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSourceRoutingConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReplicaRoutingDataSource_AppliesHikariSettingsAndFailsOverQuickly() throws Exception {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:routing-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSourceProperties.setUsername("sa");
+        dataSourceProperties.setPassword("");
+        DataSourceRoutingProperties.Replica replica = new DataSourceRoutingProperties.Replica();
+        replica.setName("broken");
+        replica.setUrl("jdbc:h2:tcp://127.0.0.1:1/unreachable");
+        replica.setUsername("sa");
+        replica.setPassword("");
+        DataSourceRoutingProperties routingProperties = new DataSourceRoutingProperties();
+        routingProperties.setReplicas(List.of(replica));
+        routingProperties.setReplicaConnectionTimeout(Duration.ofMillis(250));
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "3");
+
+        try (ReplicaRoutingDataSource routing = new DataSourceRoutingConfig()
+                .replicaRoutingDataSource(dataSourceProperties, routingProperties, environment)) {
+            assertEquals(3, ((HikariDataSource) routing.getPrimary()).getMaximumPoolSize());
+
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            readOnlyTransaction.setReadOnly(true);
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "testuser", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+            long started = System.nanoTime();
+            Integer one = readOnlyTransaction.execute(status ->
+                    new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class));
+
+            assertEquals(1, one);
+            assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(5)) < 0);
+            assertFalse(routing.isReplicaHealthy("broken"));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.RetryOnOptimisticLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticLockRetryAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetryProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new OptimisticLockRetryProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testRetry_ConflictThenSuccess_ReplaysMethod() {
+        ConflictingService serviceTarget = new ConflictingService(2);
+        ConflictingService service = proxyOf(serviceTarget, new OptimisticLockRetryAspect(properties, meterRegistry));
+
+        assertEquals("done", service.update());
+        assertEquals(3, serviceTarget.calls());
+        assertEquals(2, count("bankcards.optimistic_lock.conflicts"));
+        assertEquals(2, count("bankcards.optimistic_lock.retries"));
+    }
+
+    @Test
+    void testRetry_AttemptsExhausted_RethrowsConflict() {
+        ConflictingService serviceTarget = new ConflictingService(5);
+        ConflictingService service = proxyOf(serviceTarget, new OptimisticLockRetryAspect(properties, meterRegistry));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, service::update);
+        assertEquals(3, serviceTarget.calls());
+        assertEquals(1, meterRegistry.counter("bankcards.optimistic_lock.failures",
+                "method", "ConflictingService.update", "reason", "exhausted").count());
+    }
+
+    @Test
+    void testRetry_AnnotationOverridesMaxAttempts() {
+        ConflictingService serviceTarget = new ConflictingService(5);
+        ConflictingService service = proxyOf(serviceTarget, new OptimisticLockRetryAspect(properties, meterRegistry));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, service::updateOnce);
+        assertEquals(1, serviceTarget.calls());
+    }
+
+    @Test
+    void testRetry_OtherException_NotRetried() {
+        ConflictingService serviceTarget = new ConflictingService(0);
+        ConflictingService service = proxyOf(serviceTarget, new OptimisticLockRetryAspect(properties, meterRegistry));
+
+        assertThrows(IllegalStateException.class, service::fail);
+        assertEquals(1, serviceTarget.calls());
+        assertEquals(0, count("bankcards.optimistic_lock.conflicts"));
+    }
+
+    @Test
+    void testRetry_BudgetExhausted_StopsRetrying() {
+        properties.setBudgetCapacity(1);
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(properties, meterRegistry);
+
+        ConflictingService firstTarget = new ConflictingService(1);
+        ConflictingService first = proxyOf(firstTarget, aspect);
+        assertEquals("done", first.update());
+        assertEquals(0.0, aspect.remainingBudget());
+
+        ConflictingService secondTarget = new ConflictingService(1);
+        ConflictingService second = proxyOf(secondTarget, aspect);
+        assertThrows(ObjectOptimisticLockingFailureException.class, second::update);
+        assertEquals(1, secondTarget.calls());
+        assertEquals(1, meterRegistry.counter("bankcards.optimistic_lock.failures",
+                "method", "ConflictingService.update", "reason", "budget").count());
+    }
+
+    @Test
+    void testRetry_FirstAttemptSuccess_RefillsBudget() {
+        properties.setBudgetCapacity(1);
+        properties.setBudgetRefillPerSuccess(0.5);
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(properties, meterRegistry);
+        proxyOf(new ConflictingService(1), aspect).update();
+
+        ConflictingService serviceTarget = new ConflictingService(0);
+        ConflictingService service = proxyOf(serviceTarget, aspect);
+        service.update();
+        service.update();
+
+        assertEquals(1.0, aspect.remainingBudget());
+    }
+
+    @Test
+    void testRetry_InsideOuterTransaction_NotRetried() {
+        ConflictingService serviceTarget = new ConflictingService(1);
+        ConflictingService service = proxyOf(serviceTarget, new OptimisticLockRetryAspect(properties, meterRegistry));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, service::update);
+        assertEquals(1, serviceTarget.calls());
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "method", "ConflictingService.update").count();
+    }
+
+    private static ConflictingService proxyOf(ConflictingService target, OptimisticLockRetryAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    static class ConflictingService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final int conflicts;
+
+        ConflictingService(int conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        int calls() {
+            return calls.get();
+        }
+
+        @RetryOnOptimisticLock
+        public String update() {
+            if (calls.incrementAndGet() <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, "id");
+            }
+            return "done";
+        }
+
+        @RetryOnOptimisticLock(maxAttempts = 1)
+        public String updateOnce() {
+            return update();
+        }
+
+        @RetryOnOptimisticLock
+        public String fail() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransaction_AuthenticatedUser_RoutesToReplica() {
+        useRouting(Map.of("replica", replica), Duration.ofSeconds(2));
+        authenticate("testuser");
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testWriteTransaction_RoutesToPrimary() {
+        useRouting(Map.of("replica", replica), Duration.ofSeconds(2));
+        authenticate("testuser");
+
+        assertEquals("primary", writeTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadOnlyTransaction_Anonymous_RoutesToPrimary() {
+        useRouting(Map.of("replica", replica), Duration.ofSeconds(2));
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadOnlyTransaction_AfterOwnWrite_StaysOnPrimaryWithinStalenessWindow() {
+        useRouting(Map.of("replica", replica), Duration.ofMinutes(1));
+        authenticate("testuser");
+        writeTransaction.executeWithoutResult(status -> currentNode());
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+
+        authenticate("otheruser");
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadOnlyTransaction_AfterStalenessWindow_ReturnsToReplica() throws InterruptedException {
+        useRouting(Map.of("replica", replica), Duration.ofMillis(50));
+        authenticate("testuser");
+        writeTransaction.executeWithoutResult(status -> currentNode());
+
+        Thread.sleep(100);
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadOnlyTransaction_ReplicaUnavailable_FailsOverToPrimary() {
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/unreachable", "sa", "");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", unreachable);
+        ReplicaRoutingDataSource routing = useRouting(replicas, Duration.ofSeconds(2));
+        authenticate("testuser");
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+        assertFalse(routing.isReplicaHealthy("broken"));
+    }
+
+    @Test
+    void testReadOnlyTransaction_ReplicaPoolExhausted_UsesPrimaryAndKeepsReplica() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(((DriverManagerDataSource) replica).getUrl());
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(250);
+        ReplicaRoutingDataSource routing = useRouting(Map.of("busy", pool), Duration.ofSeconds(2));
+        authenticate("testuser");
+
+        try (pool; Connection held = pool.getConnection()) {
+            assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+            routing.checkReplicas();
+            assertTrue(routing.isReplicaHealthy("busy"));
+        }
+    }
+
+    @Test
+    void testCheckReplicas_RestoresRecoveredReplica() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/unreachable", "sa", ""));
+        replicas.put("replica", replica);
+        ReplicaRoutingDataSource routing = useRouting(replicas, Duration.ofSeconds(2));
+        authenticate("testuser");
+
+        routing.checkReplicas();
+
+        assertFalse(routing.isReplicaHealthy("broken"));
+        assertTrue(routing.isReplicaHealthy("replica"));
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+        }
+    }
+
+    private ReplicaRoutingDataSource useRouting(Map<String, DataSource> replicas, Duration stalenessWindow) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, stalenessWindow);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return routing;
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.service.ForEachShard;
+import com.example.bankcards.service.ShardKey;
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidV7Generator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRoutingAspectTest {
+
+    private ShardTopology shardTopology;
+    private ShardedService serviceTarget;
+    private ShardedService service;
+
+    @BeforeEach
+    void setUp() {
+        shardTopology = new ShardTopology(4);
+        serviceTarget = new ShardedService();
+        service = proxy(shardTopology);
+    }
+
+    @Test
+    void testRouteByKey_UserId_RunsOnShardOfId() {
+        UUID userId = UuidV7Generator.forUsername("alice");
+
+        assertEquals(shardTopology.shardOf("alice"), service.byId(userId));
+        assertEquals(0, ShardContext.currentShard());
+    }
+
+    @Test
+    void testRouteByKey_UsernameProperty_RunsOnShardOfUsername() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("bob");
+
+        assertEquals(shardTopology.shardOf("bob"), service.byUsername(request));
+    }
+
+    @Test
+    void testRunOnEveryShard_FailureDoesNotStopOtherShards() {
+        serviceTarget.failOn = 1;
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, service::job);
+
+        assertEquals("shard 1", ex.getMessage());
+        assertEquals(List.of(0, 1, 2, 3), serviceTarget.jobShards);
+    }
+
+    @Test
+    void testSingleShard_NothingBound() {
+        serviceTarget.failOn = -1;
+
+        proxy(new ShardTopology(1)).job();
+
+        assertEquals(List.of(0), serviceTarget.jobShards);
+    }
+
+    private ShardedService proxy(ShardTopology topology) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(serviceTarget);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ShardRoutingAspect(topology));
+        return factory.getProxy();
+    }
+
+    static class ShardedService {
+
+        private final List<Integer> jobShards = new ArrayList<>();
+        private int failOn = -1;
+
+        public int byId(@ShardKey UUID userId) {
+            return ShardContext.currentShard();
+        }
+
+        public int byUsername(@ShardKey("username") LoginRequest request) {
+            return ShardContext.currentShard();
+        }
+
+        @ForEachShard
+        public void job() {
+            jobShards.add(ShardContext.currentShard());
+            if (ShardContext.currentShard() == failOn) {
+                throw new IllegalStateException("shard " + failOn);
+            }
+        }
+    }
+}
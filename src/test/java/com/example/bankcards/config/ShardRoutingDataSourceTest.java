@@ -0,0 +1,107 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRoutingDataSourceTest {
+
+    private List<DataSource> shards;
+    private ShardTopology shardTopology;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(embeddedDatabase("shard-" + i));
+        }
+        shardTopology = new ShardTopology(shards.size());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void testGetConnection_RoutesToBoundShard() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            assertEquals("shard-" + shard, ShardContext.callOn(shard, this::currentNode));
+        }
+    }
+
+    @Test
+    void testGetConnection_NothingBound_UsesFirstShard() {
+        assertEquals("shard-0", currentNode());
+    }
+
+    @Test
+    void testTransaction_StaysOnShardOfFirstStatement() {
+        List<String> nodes = ShardContext.callOn(1, () -> transactionTemplate.execute(status -> {
+            List<String> seen = new ArrayList<>();
+            seen.add(currentNode());
+            ShardContext.runOn(2, () -> seen.add(currentNode()));
+            return seen;
+        }));
+
+        assertEquals(List.of("shard-1", "shard-1"), nodes);
+    }
+
+    @Test
+    void testUsersAndCards_ColocatedOnShardOfUsername() {
+        List<String> usernames = List.of("alice", "bob", "carol", "dave", "erin", "frank", "grace", "heidi");
+        for (String username : usernames) {
+            UUID userId = UuidV7Generator.forUsername(username);
+            UUID cardId = UuidV7Generator.colocatedWith(userId);
+            ShardContext.runOn(shardTopology.shardOf(username), () -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO users (id, username) VALUES (?, ?)", UuidBytes.toBytes(userId), username);
+                jdbcTemplate.update("INSERT INTO cards (id, user_id) VALUES (?, ?)",
+                        UuidBytes.toBytes(cardId), UuidBytes.toBytes(userId));
+            }));
+        }
+
+        int stored = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            JdbcTemplate shardTemplate = new JdbcTemplate(shards.get(shard));
+            for (byte[] id : shardTemplate.queryForList("SELECT id FROM users", byte[].class)) {
+                assertEquals(shard, shardTopology.shardOf(UuidBytes.fromBytes(id)));
+                stored++;
+            }
+            for (byte[] id : shardTemplate.queryForList("SELECT id FROM cards", byte[].class)) {
+                assertEquals(shard, shardTopology.shardOf(UuidBytes.fromBytes(id)));
+            }
+            assertEquals(0, shardTemplate.queryForObject("SELECT COUNT(*) FROM cards c "
+                    + "LEFT JOIN users u ON u.id = c.user_id WHERE u.id IS NULL", Integer.class));
+        }
+        assertEquals(usernames.size(), stored);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.execute("CREATE TABLE users (id BINARY(16) PRIMARY KEY, username VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE cards (id BINARY(16) PRIMARY KEY, user_id BINARY(16) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.ShardContext;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedSpringLiquibaseTest {
+
+    private List<DataSource> shards;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        shards = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            shards.add(new DriverManagerDataSource("jdbc:h2:mem:sharded-liquibase-" + i + "-" + UUID.randomUUID()
+                    + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        liquibase().afterPropertiesSet();
+    }
+
+    @Test
+    void testAfterPropertiesSet_KeyedUsers_Starts() throws Exception {
+        insertUser(UuidV7Generator.forUsername("alice"), "alice");
+
+        liquibase().afterPropertiesSet();
+
+        UUID admin = UuidBytes.fromBytes(new JdbcTemplate(shards.get(shardOf("admin")))
+                .queryForObject("SELECT id FROM users WHERE username = 'admin'", byte[].class));
+        assertEquals(ShardContext.keyBits("admin"), ShardContext.keyBits(admin));
+    }
+
+    @Test
+    void testAfterPropertiesSet_UserWithoutShardKey_Refuses() {
+        UUID legacy = new UUID(UuidV7Generator.generate().getMostSignificantBits(),
+                (UUID.randomUUID().getLeastSignificantBits() & ~0xFFFFL) | (ShardContext.keyBits("bob") ^ 1));
+        insertUser(legacy, "bob");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> liquibase().afterPropertiesSet());
+
+        assertTrue(ex.getMessage().startsWith("1 users"));
+    }
+
+    private ShardedSpringLiquibase liquibase() {
+        ShardedSpringLiquibase liquibase = new ShardedSpringLiquibase(shards);
+        liquibase.setChangeLog("classpath:db/migration/db.migration-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        return liquibase;
+    }
+
+    private void insertUser(UUID id, String username) {
+        new JdbcTemplate(shards.get(shardOf(username))).update(
+                "INSERT INTO users (id, username, password, role, status) VALUES (?, ?, 'password', 'USER', 'ACTIVE')",
+                UuidBytes.toBytes(id), username);
+    }
+
+    private int shardOf(String username) {
+        return new ShardTopology(shards.size()).shardOf(username);
+    }
+}
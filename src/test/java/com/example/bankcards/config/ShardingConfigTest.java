@@ -0,0 +1,40 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardingConfigTest {
+
+    @Test
+    void testShardRoutingDataSource_AppliesHikariSettingsToEveryShard() throws Exception {
+        ShardingProperties properties = new ShardingProperties();
+        List<ShardingProperties.Shard> shards = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:h2:mem:sharding-" + i + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+            shard.setUsername("sa");
+            shard.setPassword("");
+            shards.add(shard);
+        }
+        properties.setShards(shards);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "4")
+                .withProperty("spring.datasource.hikari.pool-name", "ignored");
+
+        try (ShardRoutingDataSource routing = new ShardingConfig(environment)
+                .shardRoutingDataSource(properties, environment)) {
+            for (int i = 0; i < 2; i++) {
+                DataSource shard = routing.getShards().get(i);
+                assertEquals(4, ((HikariDataSource) shard).getMaximumPoolSize());
+                assertEquals("shard-" + i, ((HikariDataSource) shard).getPoolName());
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightAspect aspect;
+    private ReadService serviceTarget;
+    private ReadService service;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new SingleFlightAspect(meterRegistry);
+        serviceTarget = new ReadService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(serviceTarget);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceTarget.release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testCollapse_ConcurrentIdenticalCalls_ShareOneResult() throws Exception {
+        Future<List<String>> leader = call("alice", "page-0");
+        awaitUntil(() -> serviceTarget.calls.get() == 1);
+        List<Future<List<String>>> joined = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            joined.add(call("alice", "page-0"));
+        }
+        awaitUntil(() -> count("joined") == 5);
+
+        serviceTarget.release.countDown();
+
+        List<String> result = leader.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("alice", "page-0"), result);
+        for (Future<List<String>> call : joined) {
+            assertSame(result, call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, serviceTarget.calls.get());
+        assertEquals(1, count("led"));
+        assertEquals(0, aspect.inFlight());
+    }
+
+    @Test
+    void testCollapse_OtherUserOrArguments_RunSeparately() throws Exception {
+        Future<List<String>> alice = call("alice", "page-0");
+        awaitUntil(() -> serviceTarget.calls.get() == 1);
+        Future<List<String>> bob = call("bob", "page-0");
+        Future<List<String>> alicePageOne = call("alice", "page-1");
+        awaitUntil(() -> serviceTarget.calls.get() == 3);
+
+        serviceTarget.release.countDown();
+
+        assertEquals(List.of("alice", "page-0"), alice.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("bob", "page-0"), bob.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("alice", "page-1"), alicePageOne.get(5, TimeUnit.SECONDS));
+        assertEquals(0, count("joined"));
+    }
+
+    @Test
+    void testCollapse_FailureIsSharedAndNotRemembered() throws Exception {
+        serviceTarget.failing = true;
+        Future<List<String>> leader = call("alice", "page-0");
+        awaitUntil(() -> serviceTarget.calls.get() == 1);
+        Future<List<String>> joined = call("alice", "page-0");
+        awaitUntil(() -> count("joined") == 1);
+
+        serviceTarget.release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException joinedFailure = assertThrows(ExecutionException.class, () -> joined.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertSame(leaderFailure.getCause(), joinedFailure.getCause());
+
+        serviceTarget.failing = false;
+        assertEquals(List.of("alice", "page-0"), call("alice", "page-0").get(5, TimeUnit.SECONDS));
+        assertEquals(2, serviceTarget.calls.get());
+    }
+
+    private Future<List<String>> call(String username, String page) {
+        return callers.submit(() -> {
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+            try {
+                return service.read(page);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private double count(String role) {
+        return meterRegistry.counter("bankcards.single_flight.calls", "method", "ReadService.read", "role", role).count();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the calls to line up");
+            Thread.sleep(5);
+        }
+    }
+
+    static class ReadService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean failing;
+
+        @SingleFlight
+        public List<String> read(String page) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await();
+            if (failing) {
+                throw new IllegalStateException("boom");
+            }
+            return List.of(SecurityContextHolder.getContext().getAuthentication().getName(), page);
+        }
+    }
+}
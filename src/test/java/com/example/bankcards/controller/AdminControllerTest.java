@@ -1,8 +1,20 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AdminStatsResponse;
+import com.example.bankcards.dto.BulkIssueJobResponse;
+import com.example.bankcards.dto.BulkIssueRequest;
+import com.example.bankcards.dto.CardBatchResponse;
+import com.example.bankcards.dto.CardFields;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardSearchRequest;
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.dto.UserImportResponse;
 import com.example.bankcards.dto.UserResponse;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.service.AdminService;
+import com.example.bankcards.service.BalanceReconciler;
+import com.example.bankcards.service.BulkCardIssuer;
+import com.example.bankcards.service.UserImporter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -16,14 +28,21 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -36,6 +55,15 @@ public class AdminControllerTest{
     @MockBean
     private AdminService adminService;
 
+    @MockBean
+    private BulkCardIssuer bulkCardIssuer;
+
+    @MockBean
+    private UserImporter userImporter;
+
+    @MockBean
+    private BalanceReconciler balanceReconciler;
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void testGetAllCards_AdminRole_ReturnsOk() throws Exception {
@@ -47,6 +75,48 @@ public class AdminControllerTest{
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetAllCards_Fields_ReturnsOnlySelectedFields() throws Exception {
+        CardResponse card = new CardResponse();
+        card.setId(UUID.randomUUID());
+        card.setStatus("ACTIVE");
+        when(adminService.getAllCards(any(), any(CardFields.class))).thenReturn(new PageImpl<>(List.of(card)));
+
+        mockMvc.perform(get("/api/admin/cards").param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].status").value("ACTIVE"))
+                .andExpect(jsonPath("$.content[0].cardNumberMasked").doesNotExist())
+                .andExpect(jsonPath("$.content[0].balance").doesNotExist());
+
+        verify(adminService).getAllCards(any(), argThat(fields -> fields.toString().equals("id,status")));
+        verify(adminService, never()).getAllCards(any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetAllCards_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/admin/cards").param("fields", "status,cvv"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetCardsByIds_AdminRole_ReturnsBatch() throws Exception {
+        UUID missing = UUID.randomUUID();
+        CardBatchResponse batch = new CardBatchResponse();
+        batch.setCards(List.of());
+        batch.setMissing(List.of(missing));
+        when(adminService.getCardsByIds(List.of(missing))).thenReturn(batch);
+
+        mockMvc.perform(get("/api/admin/cards").param("ids", missing.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards.length()").value(0))
+                .andExpect(jsonPath("$.missing[0]").value(missing.toString()));
+
+        verify(adminService, never()).getAllCards(any());
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void testGetAllUsers_AdminRole_ReturnsOk() throws Exception {
@@ -124,4 +194,87 @@ public class AdminControllerTest{
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testBulkIssueCards_AdminRole_ReturnsAcceptedJob() throws Exception {
+        BulkIssueJobResponse job = new BulkIssueJobResponse();
+        job.setJobId(UUID.randomUUID());
+        job.setStatus("QUEUED");
+        job.setRequested(2);
+        when(bulkCardIssuer.submit(any(BulkIssueRequest.class))).thenReturn(job);
+        when(bulkCardIssuer.getJob(job.getJobId())).thenReturn(job);
+
+        mockMvc.perform(post("/api/admin/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [{\"userId\": \"" + UUID.randomUUID() + "\", \"count\": 2}]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value(job.getJobId().toString()));
+
+        mockMvc.perform(get("/api/admin/cards/bulk/{jobId}", job.getJobId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testImportUsers_AdminRole_ReturnsSummary() throws Exception {
+        UserImportResponse summary = new UserImportResponse();
+        summary.setImported(1);
+        summary.setRejected(1);
+        summary.getErrors().add(new UserImportResponse.RowError(3, "bob", "Password must be at least 6 characters long."));
+        when(userImporter.importCsv(any())).thenReturn(summary);
+
+        mockMvc.perform(post("/api/admin/users/import")
+                        .contentType("text/csv")
+                        .content("username,password\nalice,secret1\nbob,short\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testSearchCards_AdminRole_BindsFilters() throws Exception {
+        when(adminService.searchCards(any(CardSearchRequest.class), any())).thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        mockMvc.perform(get("/api/admin/cards/search")
+                        .param("status", "ACTIVE")
+                        .param("expiresFrom", "2027-01-01")
+                        .param("minBalance", "100.50"))
+                .andExpect(status().isOk());
+
+        verify(adminService).searchCards(argThat(request -> request.getStatus() == CardStatus.ACTIVE
+                && request.getExpiresFrom().toString().equals("2027-01-01")
+                && request.getMinBalance().compareTo(new BigDecimal("100.50")) == 0), any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetStats_AdminRole_ReturnsTotals() throws Exception {
+        AdminStatsResponse stats = new AdminStatsResponse();
+        stats.setCardsByStatus(Map.of("ACTIVE", 3L));
+        stats.setTotalBalance(new BigDecimal("600.00"));
+        stats.setActiveUsers(2);
+        when(adminService.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/admin/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardsByStatus.ACTIVE").value(3))
+                .andExpect(jsonPath("$.activeUsers").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testStartReconciliation_AdminRole_Accepted() throws Exception {
+        ReconciliationReport report = new ReconciliationReport();
+        report.setRunId(UUID.randomUUID());
+        report.setStatus("RUNNING");
+        when(balanceReconciler.start()).thenReturn(report);
+
+        mockMvc.perform(post("/api/admin/reconciliation"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.runId").value(report.getRunId().toString()));
+    }
+}
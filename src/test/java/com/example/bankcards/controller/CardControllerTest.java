@@ -1,10 +1,17 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBatchResponse;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardView;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.UserResponse;
 import com.example.bankcards.service.CardService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -13,30 +20,47 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 public class CardControllerTest {
 
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -69,16 +93,86 @@ public class CardControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetMyCards_OwnerRefs_ListsOwnerOncePerPage() throws Exception {
+        UserResponse owner = new UserResponse();
+        owner.setId(UUID.randomUUID());
+        owner.setUsername("testuser");
+        List<CardResponse> cards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CardResponse card = new CardResponse();
+            card.setId(UUID.randomUUID());
+            card.setOwner(owner);
+            cards.add(card);
+        }
+        when(cardService.getCardsForCurrentUser(any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(cards, PageRequest.of(0, 10), 3));
+
+        mockMvc.perform(get("/api/cards").param("ownerRefs", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.size").value(10))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.owners.length()").value(1))
+                .andExpect(jsonPath("$.owners[0].username").value("testuser"))
+                .andExpect(jsonPath("$.content[2].ownerId").value(owner.getId().toString()))
+                .andExpect(jsonPath("$.content[2].owner").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetMyCards_AcceptCbor_ReturnsCborEnvelope() throws Exception {
+        CardResponse card = new CardResponse();
+        card.setId(UUID.randomUUID());
+        card.setBalance(new BigDecimal("12.50"));
+        when(cardService.getCardsForCurrentUser(any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(card), PageRequest.of(0, 10), 1));
+
+        byte[] body = mockMvc.perform(get("/api/cards").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CBORMapper cborMapper = new CBORMapper();
+        JsonNode page = cborMapper.readTree(body);
+        assertEquals(1, page.get("totalElements").asLong());
+        assertEquals(card.getId(), cborMapper.treeToValue(page.get("content").get(0).get("id"), UUID.class));
+        assertEquals(0, new BigDecimal("12.50").compareTo(page.get("content").get(0).get("balance").decimalValue()));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetMyCardsByIds_ReturnsFoundAndMissing() throws Exception {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        CardResponse card = new CardResponse();
+        card.setId(found);
+        CardBatchResponse batch = new CardBatchResponse();
+        batch.setCards(List.of(card));
+        batch.setMissing(List.of(missing));
+        when(cardService.getCardsByIdsForCurrentUser(List.of(found, missing))).thenReturn(batch);
+
+        mockMvc.perform(get("/api/cards").param("ids", found + "," + missing))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards[0].id").value(found.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missing.toString()));
+
+        verify(cardService, never()).getCardsForCurrentUser(any(PageRequest.class));
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testGetCardById_UserOwnsCard_ReturnsOk() throws Exception {
         UUID cardId = UUID.randomUUID();
-        CardResponse mockResponse = new CardResponse();
-        when(cardService.getCardByIdForCurrentUser(cardId)).thenReturn(mockResponse);
+        when(cardService.getCardVersionForCurrentUser(cardId)).thenReturn(2L);
+        when(cardService.getCardViewForCurrentUser(cardId, 2L)).thenReturn(cardView(cardId, 3L));
 
         mockMvc.perform(get("/api/cards/{id}", cardId)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(cardId.toString()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + cardId + "-2\""));
     }
 
     @Test
@@ -120,6 +214,22 @@ public class CardControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testTransferFunds_SmileBody_ReturnsOk() throws Exception {
+        TransferRequest request = new TransferRequest();
+        request.setSourceCardId(UUID.randomUUID());
+        request.setDestinationCardId(UUID.randomUUID());
+        request.setAmount(new BigDecimal("25.00"));
+
+        mockMvc.perform(post("/api/cards/transfer")
+                        .contentType(SMILE)
+                        .content(new SmileMapper().writeValueAsBytes(request)))
+                .andExpect(status().isOk());
+
+        verify(cardService).transferFunds(request);
+    }
+
     @Test
     void testCreateCard_Unauthenticated_ReturnsUnauthorized() throws Exception {
         mockMvc.perform(post("/api/cards")
@@ -132,9 +242,96 @@ public class CardControllerTest {
     @WithMockUser(username = "testuser", roles = {"USER"})
     void testGetCardById_UserDoesNotOwnCard_ReturnsForbidden() throws Exception {
         UUID cardId = UUID.randomUUID();
-        doThrow(new ResponseStatusException(HttpStatus.FORBIDDEN)).when(cardService).getCardByIdForCurrentUser(cardId);
+        doThrow(new ResponseStatusException(HttpStatus.FORBIDDEN)).when(cardService).getCardViewForCurrentUser(cardId, 0);
 
         mockMvc.perform(get("/api/cards/{id}", cardId))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetCardById_MatchingETag_ReturnsNotModified() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        when(cardService.getCardVersionForCurrentUser(cardId)).thenReturn(2L);
+
+        mockMvc.perform(get("/api/cards/{id}", cardId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + cardId + "-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + cardId + "-2\""));
+
+        verify(cardService, never()).getCardViewForCurrentUser(any(UUID.class), anyLong());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetMyCards_StaleETag_ReturnsOkWithETag() throws Exception {
+        Page<CardResponse> mockPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 10), 0);
+        when(cardService.getCardsETagForCurrentUser(any(PageRequest.class))).thenReturn("abc");
+        when(cardService.getCardsForCurrentUser(any(PageRequest.class))).thenReturn(mockPage);
+
+        mockMvc.perform(get("/api/cards")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetMyCards_OwnerRefsAndEncoding_TaggedApart() throws Exception {
+        Page<CardResponse> mockPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 10), 0);
+        when(cardService.getCardsETagForCurrentUser(any(PageRequest.class))).thenReturn("abc");
+        when(cardService.getCardsForCurrentUser(any(PageRequest.class))).thenReturn(mockPage);
+
+        mockMvc.perform(get("/api/cards").param("ownerRefs", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.owner-refs\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get("/api/cards").accept(MediaType.parseMediaType("application/json;q=0.5"), CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc.cbor\""));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetCardById_JsonETagOnSmileRequest_ReturnsOk() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        when(cardService.getCardVersionForCurrentUser(cardId)).thenReturn(2L);
+        when(cardService.getCardViewForCurrentUser(cardId, 2)).thenReturn(cardView(cardId, 2));
+
+        mockMvc.perform(get("/api/cards/{id}", cardId).accept(SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + cardId + "-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + cardId + "-2.smile\""));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testStreamMyCardChanges_StartsEventStream() throws Exception {
+        when(cardService.streamChangesForCurrentUser()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/cards/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+    void testGetBalanceAsOf_ValidDate_ReturnsSnapshot() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2024, 3, 4);
+        when(cardService.getBalanceAsOfForCurrentUser(cardId, date)).thenReturn(new CardBalanceResponse(
+                cardId, UUID.randomUUID(), date, new BigDecimal("420.00"), "ACTIVE"));
+
+        mockMvc.perform(get("/api/cards/{id}/balance", cardId).param("date", "2024-03-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(420.00))
+                .andExpect(jsonPath("$.snapshotDate").value("2024-03-04"));
+    }
+
+    private static CardView cardView(UUID cardId, long version) {
+        return new CardView(cardId, version, 0, "**** **** **** 1234", "12/29", "ACTIVE", new BigDecimal("100.00"),
+                null, null, null, null);
+    }
+}
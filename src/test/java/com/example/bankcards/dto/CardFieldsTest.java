@@ -0,0 +1,42 @@
+package com.example.bankcards.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardFieldsTest {
+
+    @Test
+    void testParse_NoFields_SelectsEverything() {
+        assertNull(CardFields.parse(null));
+        assertNull(CardFields.parse(" "));
+    }
+
+    @Test
+    void testParse_AlwaysIncludesIdsAndPrintsCanonically() {
+        CardFields fields = CardFields.parse(" balance,owner.role , status");
+
+        assertTrue(fields.has("id"));
+        assertTrue(fields.has("status"));
+        assertFalse(fields.has("cardNumberMasked"));
+        assertTrue(fields.hasOwner("id"));
+        assertTrue(fields.hasOwner("role"));
+        assertFalse(fields.hasOwner("username"));
+        assertEquals("id,status,balance,owner.id,owner.role", fields.toString());
+        assertEquals(fields, CardFields.parse("owner.role,status,balance,id"));
+        assertEquals(fields.hashCode(), CardFields.parse("owner.role,status,balance,id").hashCode());
+    }
+
+    @Test
+    void testParse_Owner_SelectsEveryOwnerField() {
+        CardFields fields = CardFields.parse("owner");
+
+        assertEquals("id,owner.id,owner.username,owner.role,owner.status", fields.toString());
+    }
+
+    @Test
+    void testParse_UnknownField_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> CardFields.parse("status,cardNumber"));
+        assertThrows(IllegalArgumentException.class, () -> CardFields.parse("owner.password"));
+    }
+}
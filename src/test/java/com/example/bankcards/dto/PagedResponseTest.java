@@ -0,0 +1,123 @@
+package com.example.bankcards.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PagedResponseTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PagedResponseTest.class);
+    private static final int PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testOf_KeepsPagingNumbersOnly() throws Exception {
+        Page<CardResponse> page = new PageImpl<>(cards(2, 1), PageRequest.of(3, 2, Sort.by("balance")), 41);
+
+        JsonNode json = objectMapper.valueToTree(PagedResponse.of(page));
+
+        assertEquals(3, json.get("number").asInt());
+        assertEquals(2, json.get("size").asInt());
+        assertEquals(41, json.get("totalElements").asLong());
+        assertEquals(21, json.get("totalPages").asInt());
+        assertEquals(2, json.get("content").size());
+        assertFalse(json.has("pageable"));
+        assertFalse(json.has("sort"));
+        assertFalse(json.has("owners"));
+        assertTrue(json.get("content").get(0).has("owner"));
+        assertFalse(json.get("content").get(0).has("ownerId"));
+    }
+
+    @Test
+    void testOfCards_OwnerRefs_ListsEachOwnerOnceInPageOrder() {
+        List<CardResponse> cards = cards(6, 2);
+        UserResponse first = cards.get(0).getOwner();
+        UserResponse second = cards.get(1).getOwner();
+
+        PagedResponse<CardResponse> response = PagedResponse.ofCards(new PageImpl<>(cards), true);
+
+        assertEquals(List.of(first, second), response.getOwners());
+        for (int i = 0; i < cards.size(); i++) {
+            assertNull(response.getContent().get(i).getOwner());
+            assertEquals(i % 2 == 0 ? first.getId() : second.getId(), response.getContent().get(i).getOwnerId());
+            assertEquals(cards.get(i).getBalance(), response.getContent().get(i).getBalance());
+            assertNotNull(cards.get(i).getOwner(), "The page itself must not be changed");
+        }
+    }
+
+    /**
+     * Compares a page of 100 cards of one owner serialized as Spring's {@link Page}, as the compact
+     * envelope and as the envelope with owner references. The timings are only logged; the sizes
+     * are asserted.
+     */
+    @Test
+    void testBenchmark_HundredCardPage() throws Exception {
+        PageRequest pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "balance"));
+        Supplier<Page<CardResponse>> page = () -> new PageImpl<>(cards(PAGE_SIZE, 1), pageable, 1_000);
+
+        Result springPage = measure("Page", () -> page.get());
+        Result envelope = measure("PagedResponse", () -> PagedResponse.of(page.get()));
+        Result ownerRefs = measure("PagedResponse with owner refs", () -> PagedResponse.ofCards(page.get(), true));
+
+        assertTrue(envelope.bytes() < springPage.bytes());
+        assertTrue(ownerRefs.bytes() < envelope.bytes() * 0.8);
+    }
+
+    private Result measure(String name, Supplier<Object> response) throws Exception {
+        int warmup = 2_000;
+        int iterations = 5_000;
+        int bytes = 0;
+        for (int i = 0; i < warmup; i++) {
+            bytes = objectMapper.writeValueAsBytes(response.get()).length;
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(response.get());
+        }
+        double micros = (System.nanoTime() - started) / 1_000.0 / iterations;
+        logger.info("{}: {} bytes, {} us per {}-card page", name, bytes, String.format("%.1f", micros), PAGE_SIZE);
+        return new Result(bytes, micros);
+    }
+
+    private static List<CardResponse> cards(int count, int owners) {
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < owners; i++) {
+            UserResponse user = new UserResponse();
+            user.setId(UUID.randomUUID());
+            user.setUsername("user" + i);
+            user.setRole("USER");
+            user.setStatus("ACTIVE");
+            users.add(user);
+        }
+        List<CardResponse> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CardResponse card = new CardResponse();
+            card.setId(UUID.randomUUID());
+            card.setCardNumberMasked("**** **** **** " + (1000 + i));
+            card.setExpiryDate("2029-12-31");
+            card.setStatus("ACTIVE");
+            card.setBalance(new BigDecimal("1000.00"));
+            card.setOwner(users.get(i % owners));
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    private record Result(int bytes, double micros) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardFields;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.util.EncryptionUtil;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:card-search;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class CardSearchRepositoryTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        new EncryptionUtil().setEncryptionKey("ThisIsASecretKey1234567890123456");
+    }
+
+    @Test
+    void testFindFields_SortedByOwnerProperty() {
+        card(user("alice"), "1111");
+        card(user("bob"), "2222");
+
+        List<Tuple> rows = cardRepository.findFields(CardSpecifications.hasStatus(CardStatus.ACTIVE),
+                CardFields.parse("status"), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "owner.username")))
+                .getContent();
+
+        assertEquals(List.of("bob", "alice"), rows.stream().map(row -> row.get("owner.username")).toList());
+    }
+
+    @Test
+    void testFindFields_UnknownSortProperty_Rejected() {
+        assertThrows(PropertyReferenceException.class, () -> cardRepository.findFields(
+                CardSpecifications.hasStatus(CardStatus.ACTIVE), CardFields.parse("status"),
+                PageRequest.of(0, 10, Sort.by("owner.nickname"))));
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        user.setStatus(UserStatus.ACTIVE);
+        return userRepository.save(user);
+    }
+
+    private void card(User owner, String cardNumber) {
+        Card card = new Card();
+        card.setCardNumber(cardNumber);
+        card.setExpiryDate(LocalDate.now().plusYears(1));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(BigDecimal.TEN);
+        card.setOwner(owner);
+        cardRepository.save(card);
+    }
+}
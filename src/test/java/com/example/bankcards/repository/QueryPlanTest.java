@@ -0,0 +1,176 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardFields;
+import com.example.bankcards.entity.CardStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN for every repository query method against an embedded database migrated
+ * with the production Liquibase changelog, and fails when a plan falls back to a full
+ * table scan. Every new repository method must be registered in {@link #queryCases()}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.bankcards.repository.QueryPlanTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class QueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(CardRepository.class, CardSearchRepository.class, UserRepository.class);
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Map<String, Runnable> queryCases() {
+        UUID id = UUID.randomUUID();
+        Pageable page = PageRequest.of(0, 10);
+
+        Map<String, Runnable> cases = new TreeMap<>();
+        cases.put("CardRepository.findByOwnerId", () -> cardRepository.findByOwnerId(id, page));
+        cases.put("CardRepository.findByExpiryDateBeforeAndStatusIs",
+                () -> cardRepository.findByExpiryDateBeforeAndStatusIs(LocalDate.now(), CardStatus.ACTIVE));
+        cases.put("CardRepository.findByOwnerIdAndStatusNot",
+                () -> cardRepository.findByOwnerIdAndStatusNot(id, CardStatus.DELETED, page));
+        cases.put("CardRepository.findVersionByIdAndOwnerUsernameAndStatusNot",
+                () -> cardRepository.findVersionByIdAndOwnerUsernameAndStatusNot(id, "admin", CardStatus.DELETED));
+        cases.put("CardRepository.findVersionsByOwnerUsernameAndStatusNot",
+                () -> cardRepository.findVersionsByOwnerUsernameAndStatusNot("admin", CardStatus.DELETED, page));
+        cases.put("CardRepository.findWithOwnerByIdInAndOwnerUsernameAndStatusNot",
+                () -> cardRepository.findWithOwnerByIdInAndOwnerUsernameAndStatusNot(
+                        List.of(id, UUID.randomUUID()), "admin", CardStatus.DELETED));
+        cases.put("CardRepository.findWithOwnerByIdIn",
+                () -> cardRepository.findWithOwnerByIdIn(List.of(id, UUID.randomUUID())));
+        cases.put("CardRepository.findVersionsWithOwnerByIdIn",
+                () -> cardRepository.findVersionsWithOwnerByIdIn(List.of(id, UUID.randomUUID())));
+        // Offset past the first page so the count query is issued as well.
+        Pageable secondPage = PageRequest.of(1, 10, Sort.by("balance"));
+        cases.put("CardSearchRepository.search", () -> {
+            cardRepository.search(CardSpecifications.hasStatus(CardStatus.ACTIVE)
+                    .and(CardSpecifications.balanceAtLeast(BigDecimal.ONE))
+                    .and(CardSpecifications.balanceAtMost(BigDecimal.TEN)), secondPage);
+            cardRepository.search(CardSpecifications.hasStatus(CardStatus.ACTIVE)
+                    .and(CardSpecifications.expiresOnOrAfter(LocalDate.now()))
+                    .and(CardSpecifications.expiresOnOrBefore(LocalDate.now().plusMonths(1))), secondPage);
+            cardRepository.search(CardSpecifications.ownedBy("admin")
+                    .and(CardSpecifications.hasStatus(CardStatus.BLOCKED)), secondPage);
+            cardRepository.search(CardSpecifications.ownedBy("admin")
+                    .and(CardSpecifications.balanceAtLeast(BigDecimal.ONE)), secondPage);
+        });
+        cases.put("CardSearchRepository.findFields", () -> {
+            cardRepository.findFields(CardSpecifications.ownedBy(id)
+                    .and(CardSpecifications.hasStatusNot(CardStatus.DELETED)),
+                    CardFields.parse("status,balance"), secondPage);
+            cardRepository.findFields(CardSpecifications.ownedBy("admin"),
+                    CardFields.parse("cardNumberMasked,expiryDate,owner"), secondPage);
+            cardRepository.findFields(CardSpecifications.hasStatus(CardStatus.ACTIVE),
+                    CardFields.parse("owner.username"), secondPage);
+        });
+        cases.put("UserRepository.findByUsername", () -> userRepository.findByUsername("admin"));
+        cases.put("UserRepository.findUserById", () -> userRepository.findUserById(id));
+        return cases;
+    }
+
+    @Test
+    void testEveryRepositoryMethodHasPlanCase() {
+        Set<String> declared = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !method.isSynthetic())
+                        .map(Method::getName)
+                        .map(name -> repository.getSimpleName() + "." + name))
+                .collect(Collectors.toSet());
+
+        assertEquals(declared, queryCases().keySet(),
+                "Register new repository methods in QueryPlanTest.queryCases()");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> testQueryPlansAvoidFullTableScans() {
+        return queryCases().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+                    List<String> statements = RecordingInspector.record(entry.getValue());
+                    assertFalse(statements.isEmpty(), "No SQL was issued by " + entry.getKey());
+
+                    for (String sql : statements) {
+                        String plan = explain(sql);
+                        assertFalse(plan.contains(".tableScan"),
+                                entry.getKey() + " degrades to a full table scan:\n" + plan);
+                    }
+                }));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        private static volatile boolean recording;
+
+        static synchronized List<String> record(Runnable query) {
+            STATEMENTS.clear();
+            recording = true;
+            try {
+                query.run();
+            } finally {
+                recording = false;
+            }
+            return new ArrayList<>(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (recording && sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
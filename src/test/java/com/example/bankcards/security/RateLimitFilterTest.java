@@ -0,0 +1,123 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.getRoutes().add(route("/api/auth/**", RateLimitProperties.KeyType.IP, 2));
+        properties.getRoutes().add(route("/api/cards/transfer", RateLimitProperties.KeyType.USER, 1));
+        properties.getRoutes().get(1).setMethods(List.of("post"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testBurstExceeded_ReturnsTooManyRequestsWithRetryAfter() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+
+        assertEquals(200, call(filter, "POST", "/api/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, call(filter, "POST", "/api/auth/login", "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = call(filter, "POST", "/api/auth/login", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("100", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"error\""));
+        assertEquals(1, meterRegistry.counter("bankcards.rate_limit.rejected", "route", "/api/auth/**").count());
+    }
+
+    @Test
+    void testIpRoute_KeysByClientAddress() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+        call(filter, "POST", "/api/auth/login", "10.0.0.1");
+        call(filter, "POST", "/api/auth/login", "10.0.0.1");
+
+        assertEquals(200, call(filter, "POST", "/api/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void testUserRoute_KeysByAuthenticatedUser() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+
+        authenticate("alice");
+        assertEquals(200, call(filter, "POST", "/api/cards/transfer", "10.0.0.1").getStatus());
+        assertEquals(429, call(filter, "POST", "/api/cards/transfer", "10.0.0.1").getStatus());
+
+        authenticate("bob");
+        assertEquals(200, call(filter, "POST", "/api/cards/transfer", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testUnmatchedMethodOrPath_NotLimited() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+        authenticate("alice");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(filter, "GET", "/api/cards/transfer", "10.0.0.1").getStatus());
+            assertEquals(200, call(filter, "GET", "/api/cards", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void testDisabled_PassesEverything() throws Exception {
+        properties.setEnabled(false);
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(filter, "POST", "/api/auth/login", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void testInvalidRoute_Rejected() {
+        properties.getRoutes().add(route("/api/**", RateLimitProperties.KeyType.USER, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(properties, meterRegistry));
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String method, String uri, String remoteAddr)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static RateLimitProperties.Route route(String pattern, RateLimitProperties.KeyType keyBy, int capacity) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern(pattern);
+        route.setKeyBy(keyBy);
+        route.setCapacity(capacity);
+        route.setRefillPerSecond(0.01);
+        return route;
+    }
+}
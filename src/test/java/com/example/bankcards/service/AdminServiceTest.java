@@ -1,6 +1,9 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.CardBatchResponse;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardSearchRequest;
 import com.example.bankcards.dto.UserResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
@@ -8,6 +11,7 @@ import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserStatus;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSearchRow;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardMapper;
 import com.example.bankcards.util.UserMapper;
@@ -16,22 +20,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class AdminServiceTest {
@@ -45,9 +55,34 @@ public class AdminServiceTest {
     @Mock
     private CardMapper cardMapper;
 
+    @Mock
+    private CardViewCache cardViewCache;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private CardEventOutbox cardEventOutbox;
+
+    @Mock
+    private CardChangeBus cardChangeBus;
+
+    @Mock
+    private DashboardStats dashboardStats;
+
+    @Mock
+    private BalanceSnapshots balanceSnapshots;
+
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private ShardTopology shardTopology = new ShardTopology(1);
+
+    @Spy
+    private ScatterGather scatterGather = new ScatterGather(shardTopology, mock(PlatformTransactionManager.class),
+            Runnable::run);
+
     @InjectMocks
     private AdminService adminService;
 
@@ -101,7 +136,7 @@ public class AdminServiceTest {
         Page<Card> cardPage = new PageImpl<>(cardList, pageable, cardList.size());
 
         when(cardRepository.findAll(pageable)).thenReturn(cardPage);
-        when(cardMapper.toCardResponse(any(Card.class))).thenReturn(new CardResponse());
+        when(cardViewCache.toCardResponse(any(Card.class))).thenReturn(new CardResponse());
 
         
         Page<CardResponse> result = adminService.getAllCards(pageable);
@@ -112,6 +147,24 @@ public class AdminServiceTest {
         verify(cardRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void testGetCardsByIds_ReturnsFoundAndMissing() {
+        UUID unknown = UUID.randomUUID();
+        when(cardRepository.findWithOwnerByIdIn(any())).thenReturn(List.of(blockedCard, activeCard));
+        when(cardViewCache.toCardResponse(any(Card.class))).thenAnswer(invocation -> {
+            CardResponse response = new CardResponse();
+            response.setId(invocation.<Card>getArgument(0).getId());
+            return response;
+        });
+
+        CardBatchResponse result = adminService.getCardsByIds(List.of(activeCard.getId(), unknown, blockedCard.getId()));
+
+        assertEquals(List.of(activeCard.getId(), blockedCard.getId()),
+                result.getCards().stream().map(CardResponse::getId).toList());
+        assertEquals(List.of(unknown), result.getMissing());
+        verify(cardRepository, times(1)).findWithOwnerByIdIn(any());
+    }
+
     @Test
     void testGetAllUsers_Success() {
         
@@ -142,6 +195,7 @@ public class AdminServiceTest {
         assertNotNull(result);
         assertEquals(UserStatus.BLOCKED.name(), regularUser.getStatus().name());
         verify(userRepository, times(1)).save(regularUser);
+        verify(dashboardStats).activeUsersChanged(-1);
     }
 
     @Test
@@ -160,7 +214,13 @@ public class AdminServiceTest {
 
     @Test
     void testBlockUser_AdminBlocksOwnAccount_ThrowsException() {
-        assertThrows(ResponseStatusException.class, () -> adminService.blockUser(adminUser.getId()));
+        when(userRepository.findById(adminUser.getId())).thenReturn(Optional.of(adminUser));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> adminService.blockUser(adminUser.getId()));
+
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -176,6 +236,7 @@ public class AdminServiceTest {
         assertNotNull(result);
         assertEquals(UserStatus.ACTIVE.name(), regularUser.getStatus().name());
         verify(userRepository, times(1)).save(regularUser);
+        verify(dashboardStats).activeUsersChanged(1);
     }
 
     @Test
@@ -245,6 +306,7 @@ public class AdminServiceTest {
         assertNotNull(result);
         assertEquals(CardStatus.ACTIVE.name(), blockedCard.getStatus().name());
         verify(cardRepository, times(1)).save(blockedCard);
+        verify(dashboardStats).cardStatusChanged(CardStatus.BLOCKED, CardStatus.ACTIVE, 1);
     }
 
     @Test
@@ -267,6 +329,9 @@ public class AdminServiceTest {
 
         
         verify(cardRepository, times(1)).deleteById(activeCard.getId());
+        verify(cardViewCache).evictAfterCommit(activeCard.getId());
+        verify(auditLog).record(AuditLog.Action.CARD_DELETED, activeCard.getId());
+        verify(dashboardStats).cardRemoved(activeCard);
     }
 
     @Test
@@ -277,4 +342,45 @@ public class AdminServiceTest {
         
         assertThrows(ResponseStatusException.class, () -> adminService.deleteCard(activeCard.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchCards_MapsProjectedRows() {
+        CardSearchRequest request = new CardSearchRequest();
+        request.setStatus(CardStatus.ACTIVE);
+        request.setMinBalance(new BigDecimal("10.00"));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("balance"));
+        CardSearchRow row = new CardSearchRow(activeCard.getId(), "encrypted", LocalDate.now(), CardStatus.ACTIVE,
+                activeCard.getBalance(), regularUser.getId(), "testuser", Role.USER, UserStatus.ACTIVE);
+        CardResponse response = new CardResponse();
+        when(cardRepository.search(any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+        when(cardMapper.toCardResponse(row)).thenReturn(response);
+
+        Page<CardResponse> result = adminService.searchCards(request, pageable);
+
+        assertSame(response, result.getContent().get(0));
+        verify(cardRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testSearchCards_WithoutStatusOrOwner_ThrowsException() {
+        CardSearchRequest request = new CardSearchRequest();
+        request.setMinBalance(BigDecimal.ONE);
+
+        assertThrows(ResponseStatusException.class, () -> adminService.searchCards(request, PageRequest.of(0, 10)));
+        verify(cardRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void testSearchCards_InvalidRangeOrSort_ThrowsException() {
+        CardSearchRequest request = new CardSearchRequest();
+        request.setOwner("testuser");
+        request.setExpiresFrom(LocalDate.now().plusDays(1));
+        request.setExpiresTo(LocalDate.now());
+        assertThrows(ResponseStatusException.class, () -> adminService.searchCards(request, PageRequest.of(0, 10)));
+
+        request.setExpiresTo(null);
+        assertThrows(ResponseStatusException.class,
+                () -> adminService.searchCards(request, PageRequest.of(0, 10, Sort.by("cardNumber"))));
+        verify(cardRepository, never()).search(any(), any());
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.AuditProperties;
+import com.example.bankcards.util.UuidBytes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+public class AuditLogTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private AuditProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:audit-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("CREATE TABLE audit_log (id BINARY(16) PRIMARY KEY, occurred_at TIMESTAMP(6) NOT NULL, "
+                + "actor VARCHAR(255) NOT NULL, action VARCHAR(50) NOT NULL, target_type VARCHAR(50) NOT NULL, "
+                + "target_id BINARY(16), details VARCHAR(255))");
+        properties = new AuditProperties();
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+    }
+
+    @Test
+    void testRecord_WrittenInBatchesByWriter() throws InterruptedException {
+        auditLog = new AuditLog(jdbcTemplate, transactionManager, properties, meterRegistry);
+        auditLog.start();
+        UUID cardId = UUID.randomUUID();
+
+        for (int i = 0; i < 25; i++) {
+            auditLog.record(AuditLog.Action.CARD_BLOCKED, cardId);
+        }
+        awaitRows(25);
+
+        assertEquals(25, meterRegistry.counter("bankcards.audit.events", "result", "written").count());
+        assertEquals(0, meterRegistry.counter("bankcards.audit.events", "result", "written_by_publisher").count());
+        byte[] targetId = jdbcTemplate.queryForObject("SELECT target_id FROM audit_log FETCH FIRST 1 ROWS ONLY", byte[].class);
+        assertEquals(cardId, UuidBytes.fromBytes(targetId));
+        assertEquals("system", jdbcTemplate.queryForObject("SELECT DISTINCT actor FROM audit_log", String.class));
+        assertEquals("CARD", jdbcTemplate.queryForObject("SELECT DISTINCT target_type FROM audit_log", String.class));
+    }
+
+    @Test
+    void testRecord_QueuedOnlyAfterCommit() {
+        auditLog = new AuditLog(jdbcTemplate, transactionManager, properties, meterRegistry);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditLog.record(AuditLog.Action.USER_BLOCKED, UUID.randomUUID());
+            assertEquals(0, rows());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, rows());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecord_QueueFull_PublisherWritesItself() throws InterruptedException {
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(1);
+        properties.setOfferTimeout(Duration.ofMillis(1));
+        CountDownLatch release = new CountDownLatch(1);
+        auditLog = new AuditLog(stallingWriter(release), transactionManager, properties, meterRegistry);
+        auditLog.start();
+
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(AuditLog.Action.CARD_CREATED, UUID.randomUUID(), "event " + i);
+        }
+
+        // The stalled writer holds one event and the queue two more; everything else is written by callers.
+        assertTrue(meterRegistry.counter("bankcards.audit.events", "result", "written_by_publisher").count() >= 7);
+        release.countDown();
+        auditLog.stop();
+        assertEquals(10, rows());
+    }
+
+    @Test
+    void testRecord_PublisherWriteCommittedOnItsOwn() {
+        auditLog = new AuditLog(jdbcTemplate, transactionManager, properties, meterRegistry);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            auditLog.record(AuditLog.Action.CARD_BLOCKED, UUID.randomUUID());
+            // Runs after the publisher, on the committed transaction's connection, like a pool
+            // rolling back what was left open on it.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        DataSourceUtils.getConnection(dataSource).rollback();
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            });
+        });
+
+        assertEquals(1, rows());
+        assertEquals(1, meterRegistry.counter("bankcards.audit.events", "result", "written_by_publisher").count());
+    }
+
+    @Test
+    void testStop_FlushesQueuedEvents() throws InterruptedException {
+        properties.setBatchSize(1);
+        CountDownLatch release = new CountDownLatch(1);
+        auditLog = new AuditLog(stallingWriter(release), transactionManager, properties, meterRegistry);
+        auditLog.start();
+        for (int i = 0; i < 15; i++) {
+            auditLog.record(AuditLog.Action.CARD_EXPIRED, UUID.randomUUID());
+        }
+        assertTrue(rows() < 15);
+
+        release.countDown();
+        auditLog.stop();
+
+        assertEquals(15, rows());
+        assertFalse(auditLog.isRunning());
+    }
+
+    @Test
+    void testWriteFailure_CountedAndDropped() {
+        jdbcTemplate.execute("DROP TABLE audit_log");
+        auditLog = new AuditLog(jdbcTemplate, transactionManager, properties, meterRegistry);
+
+        auditLog.record(AuditLog.Action.USER_DELETED, UUID.randomUUID());
+
+        assertEquals(1, meterRegistry.counter("bankcards.audit.events", "result", "failed").count());
+    }
+
+    /**
+     * Blocks batch inserts issued from the writer thread until {@code release} opens.
+     */
+    private JdbcTemplate stallingWriter(CountDownLatch release) {
+        JdbcTemplate stalling = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("audit-writer")) {
+                release.await();
+            }
+            return invocation.callRealMethod();
+        }).when(stalling).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        return stalling;
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log", Integer.class);
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (rows() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, rows());
+    }
+}
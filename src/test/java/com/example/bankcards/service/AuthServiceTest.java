@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ShardTopology;
 import com.example.bankcards.dto.JwtResponse;
 import com.example.bankcards.dto.LoginRequest;
 import com.example.bankcards.dto.RegisterRequest;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -40,6 +42,12 @@ public class AuthServiceTest {
     @Mock
     private JwtTokenProvider tokenProvider;
 
+    @Mock
+    private DashboardStats dashboardStats;
+
+    @Spy
+    private ShardTopology shardTopology = new ShardTopology(1);
+
     @InjectMocks
     private AuthService authService;
 
@@ -71,6 +79,7 @@ public class AuthServiceTest {
         assertEquals(Role.USER, result.getRole());
         assertEquals(UserStatus.ACTIVE, result.getStatus());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(dashboardStats).activeUsersChanged(1);
     }
 
     @Test
@@ -0,0 +1,180 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ReconciliationProperties;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.ReconciliationReport;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceReconcilerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BalanceLedger balanceLedger;
+    private ReconciliationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:reconciliation-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE cards (id BINARY(16) PRIMARY KEY, user_id BINARY(16) NOT NULL, "
+                + "balance DECIMAL(19, 2) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE balance_ledger (id BINARY(16) PRIMARY KEY, card_id BINARY(16) NOT NULL, "
+                + "entry_type VARCHAR(50) NOT NULL, amount DECIMAL(19, 2) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        balanceLedger = new BalanceLedger(jdbcTemplate);
+
+        properties = new ReconciliationProperties();
+        properties.setChunkSize(3);
+        properties.setParallelism(2);
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new BalanceReconciler(jdbcTemplate, new ShardTopology(1), properties, meterRegistry, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciler.shutdown();
+    }
+
+    @Test
+    void testStart_LedgerMatchesBalances_NoDrift() {
+        UUID alice = UUID.randomUUID();
+        List<Card> cards = issue(alice, 10);
+        transfer(cards.get(0), cards.get(9), "75.50");
+        transfer(cards.get(4), cards.get(5), "10.00");
+
+        reconciler.start();
+        ReconciliationReport report = reconciler.getLatest();
+
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(10, report.getCardsChecked());
+        assertEquals(0, report.getDriftedCards());
+        assertEquals(new BigDecimal("2000.00"), report.getTotalBalance());
+        assertEquals(new BigDecimal("2000.00"), report.getExpectedTotal());
+        assertTrue(report.getDrifts().isEmpty());
+        assertTrue(report.getUserDrifts().isEmpty());
+        assertEquals(0.0, meterRegistry.get("bankcards.reconciliation.drifted_cards").gauge().value());
+    }
+
+    @Test
+    void testStart_TamperedBalances_ReportedPerCardAndUserAcrossChunks() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        List<Card> aliceCards = issue(alice, 5);
+        List<Card> bobCards = issue(bob, 4);
+        setBalance(aliceCards.get(0), "250.00");
+        setBalance(aliceCards.get(4), "190.00");
+        setBalance(bobCards.get(2), "0.00");
+
+        reconciler.start();
+        ReconciliationReport report = reconciler.getLatest();
+
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(9, report.getCardsChecked());
+        assertEquals(3, report.getDriftedCards());
+        assertEquals(new BigDecimal("1640.00"), report.getTotalBalance());
+        assertEquals(new BigDecimal("1800.00"), report.getExpectedTotal());
+        assertEquals(3, report.getDrifts().size());
+        assertTrue(report.getDrifts().stream().anyMatch(drift -> drift.getCardId().equals(bobCards.get(2).getId())
+                && drift.getUserId().equals(bob) && drift.getExpected().compareTo(new BigDecimal("200")) == 0));
+        assertEquals(0, new BigDecimal("40.00").compareTo(report.getUserDrifts().get(alice)));
+        assertEquals(0, new BigDecimal("-200.00").compareTo(report.getUserDrifts().get(bob)));
+        assertEquals(3.0, meterRegistry.get("bankcards.reconciliation.drifted_cards").gauge().value());
+    }
+
+    @Test
+    void testStart_ReportedDriftsCapped() {
+        properties.setMaxReportedDrifts(2);
+        reconciler = new BalanceReconciler(jdbcTemplate, new ShardTopology(1), properties, meterRegistry, Runnable::run);
+        for (Card card : issue(UUID.randomUUID(), 7)) {
+            setBalance(card, "1.00");
+        }
+
+        reconciler.start();
+        ReconciliationReport report = reconciler.getLatest();
+
+        assertEquals(7, report.getDriftedCards());
+        assertEquals(2, report.getDrifts().size());
+        assertEquals(1, report.getUserDrifts().size());
+    }
+
+    @Test
+    void testStart_AlreadyRunning_Conflict() {
+        List<Runnable> queued = new ArrayList<>();
+        Executor deferred = queued::add;
+        reconciler = new BalanceReconciler(jdbcTemplate, new ShardTopology(1), properties, meterRegistry, deferred);
+
+        ReconciliationReport started = reconciler.start();
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, reconciler::start);
+        queued.forEach(Runnable::run);
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        assertEquals("RUNNING", started.getStatus());
+        assertEquals(started.getRunId(), reconciler.getLatest().getRunId());
+        assertEquals("COMPLETED", reconciler.getLatest().getStatus());
+        assertDoesNotThrow(() -> reconciler.start());
+    }
+
+    @Test
+    void testGetLatest_NothingRun_NotFound() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, reconciler::getLatest);
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    private List<Card> issue(UUID userId, int count) {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Card card = new Card();
+            card.setId(UuidV7Generator.generate());
+            card.setBalance(new BigDecimal("200.00"));
+            cards.add(card);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Card card : cards) {
+                jdbcTemplate.update("INSERT INTO cards (id, user_id, balance) VALUES (?, ?, ?)",
+                        UuidBytes.toBytes(card.getId()), UuidBytes.toBytes(userId), card.getBalance());
+            }
+            balanceLedger.cardsIssued(cards);
+        });
+        return cards;
+    }
+
+    private void transfer(Card source, Card destination, String amount) {
+        BigDecimal value = new BigDecimal(amount);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE cards SET balance = balance - ? WHERE id = ?", value,
+                    UuidBytes.toBytes(source.getId()));
+            jdbcTemplate.update("UPDATE cards SET balance = balance + ? WHERE id = ?", value,
+                    UuidBytes.toBytes(destination.getId()));
+            balanceLedger.transferred(source, destination, value);
+        });
+    }
+
+    private void setBalance(Card card, String balance) {
+        jdbcTemplate.update("UPDATE cards SET balance = ? WHERE id = ?", new BigDecimal(balance),
+                UuidBytes.toBytes(card.getId()));
+    }
+}
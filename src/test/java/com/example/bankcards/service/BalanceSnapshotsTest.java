@@ -0,0 +1,162 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.BalanceSnapshotProperties;
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceSnapshotsTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+
+    private JdbcTemplate jdbcTemplate;
+    private BalanceSnapshots balanceSnapshots;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:balance-snapshots-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE cards (id BINARY(16) PRIMARY KEY, user_id BINARY(16) NOT NULL, "
+                + "balance DECIMAL(19, 2) NOT NULL, status VARCHAR(50) NOT NULL, expiry_date DATE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE balance_ledger (id BINARY(16) PRIMARY KEY, card_id BINARY(16) NOT NULL, "
+                + "entry_type VARCHAR(50) NOT NULL, amount DECIMAL(19, 2) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE card_balance_snapshots (snapshot_date DATE NOT NULL, "
+                + "card_id BINARY(16) NOT NULL, user_id BINARY(16) NOT NULL, balance DECIMAL(19, 2) NOT NULL, "
+                + "status VARCHAR(50) NOT NULL, PRIMARY KEY (snapshot_date, card_id))");
+
+        BalanceSnapshotProperties properties = new BalanceSnapshotProperties();
+        properties.setChunkSize(3);
+        properties.setManagePartitions(false);
+        balanceSnapshots = new BalanceSnapshots(jdbcTemplate, new DataSourceTransactionManager(dataSource), properties);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void testSnapshot_CopiesEveryCardInChunks() {
+        List<UUID> cards = insertCards(7, "200.00");
+
+        assertEquals(7, balanceSnapshots.snapshot(MONDAY));
+
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_balance_snapshots WHERE snapshot_date = ?", Integer.class, Date.valueOf(MONDAY)));
+        CardBalanceResponse last = balanceSnapshots.getAsOf(cards.get(6), MONDAY);
+        assertEquals(userId, last.getUserId());
+        assertEquals(MONDAY, last.getSnapshotDate());
+        assertEquals(new BigDecimal("200.00"), last.getBalance());
+        assertEquals("ACTIVE", last.getStatus());
+    }
+
+    @Test
+    void testSnapshot_RerunCopiesOnlyMissingCards() {
+        insertCards(4, "200.00");
+        balanceSnapshots.snapshot(MONDAY);
+        List<UUID> later = insertCards(2, "50.00");
+
+        assertEquals(2, balanceSnapshots.snapshot(MONDAY));
+        assertEquals(0, balanceSnapshots.snapshot(MONDAY));
+
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_balance_snapshots", Integer.class));
+        assertEquals(new BigDecimal("50.00"), balanceSnapshots.getAsOf(later.get(1), MONDAY).getBalance());
+    }
+
+    @Test
+    void testGetAsOf_ReturnsLatestSnapshotOnOrBeforeDate() {
+        UUID card = insertCards(1, "200.00").get(0);
+        balanceSnapshots.snapshot(MONDAY);
+        ledger(card, "TRANSFER_OUT", "-125.00", MONDAY.plusDays(1).atTime(12, 0));
+        jdbcTemplate.update("UPDATE cards SET balance = 75.00, status = 'BLOCKED'");
+        balanceSnapshots.snapshot(MONDAY.plusDays(2));
+
+        assertEquals(new BigDecimal("200.00"), balanceSnapshots.getAsOf(card, MONDAY.plusDays(1)).getBalance());
+        CardBalanceResponse later = balanceSnapshots.getAsOf(card, MONDAY.plusDays(10));
+        assertEquals(new BigDecimal("75.00"), later.getBalance());
+        assertEquals("BLOCKED", later.getStatus());
+        assertEquals(MONDAY.plusDays(2), later.getSnapshotDate());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> balanceSnapshots.getAsOf(card, MONDAY.minusDays(1)));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void testSnapshot_IgnoresChangesAfterDayEnded() {
+        UUID card = insertCards(1, "200.00").get(0);
+        UUID expired = insertCards(1, "30.00").get(0);
+        jdbcTemplate.update("UPDATE cards SET status = 'EXPIRED', expiry_date = ? WHERE id = ?",
+                Date.valueOf(MONDAY), UuidBytes.toBytes(expired));
+        ledger(card, "TRANSFER_OUT", "-50.00", MONDAY.plusDays(1).atStartOfDay());
+        jdbcTemplate.update("UPDATE cards SET balance = 150.00 WHERE id = ?", UuidBytes.toBytes(card));
+        UUID issuedLater = UuidV7Generator.generate();
+        jdbcTemplate.update("INSERT INTO cards (id, user_id, balance, status, expiry_date) "
+                + "VALUES (?, ?, 10.00, 'ACTIVE', '2030-01-01')", UuidBytes.toBytes(issuedLater),
+                UuidBytes.toBytes(userId));
+        ledger(issuedLater, "ISSUED", "10.00", MONDAY.plusDays(1).atTime(0, 0, 1));
+
+        assertEquals(2, balanceSnapshots.snapshot(MONDAY));
+
+        assertEquals(new BigDecimal("200.00"), balanceSnapshots.getAsOf(card, MONDAY).getBalance());
+        assertEquals("ACTIVE", balanceSnapshots.getAsOf(expired, MONDAY).getStatus());
+        assertThrows(ResponseStatusException.class, () -> balanceSnapshots.getAsOf(issuedLater, MONDAY));
+    }
+
+    @Test
+    void testGetAsOf_RunStoppedHalfWay_FallsBackToCardsOwnSnapshot() {
+        List<UUID> cards = insertCards(2, "200.00");
+        balanceSnapshots.snapshot(MONDAY);
+        jdbcTemplate.update("INSERT INTO card_balance_snapshots (snapshot_date, card_id, user_id, balance, status) "
+                + "VALUES (?, ?, ?, 200.00, 'ACTIVE')", Date.valueOf(MONDAY.plusDays(1)),
+                UuidBytes.toBytes(cards.get(0)), UuidBytes.toBytes(userId));
+
+        assertEquals(MONDAY.plusDays(1), balanceSnapshots.getAsOf(cards.get(0), MONDAY.plusDays(1)).getSnapshotDate());
+        assertEquals(MONDAY, balanceSnapshots.getAsOf(cards.get(1), MONDAY.plusDays(1)).getSnapshotDate());
+    }
+
+    @Test
+    void testGetAsOf_DateNotInPast_BadRequest() {
+        UUID card = insertCards(1, "200.00").get(0);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> balanceSnapshots.getAsOf(card, LocalDate.now()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    private List<UUID> insertCards(int count, String balance) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = UuidV7Generator.generate();
+            jdbcTemplate.update("INSERT INTO cards (id, user_id, balance, status, expiry_date) "
+                    + "VALUES (?, ?, ?, 'ACTIVE', '2030-01-01')", UuidBytes.toBytes(id), UuidBytes.toBytes(userId),
+                    new BigDecimal(balance));
+            ledger(id, "ISSUED", balance, MONDAY.atStartOfDay());
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void ledger(UUID cardId, String entryType, String amount, LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO balance_ledger (id, card_id, entry_type, amount, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", UuidBytes.toBytes(UuidV7Generator.generate()),
+                UuidBytes.toBytes(cardId), entryType, new BigDecimal(amount), Timestamp.valueOf(at));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.BulkIssueProperties;
+import com.example.bankcards.config.DashboardStatsProperties;
+import com.example.bankcards.config.PanProperties;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.BulkIssueJobResponse;
+import com.example.bankcards.dto.BulkIssueRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.Luhn;
+import com.example.bankcards.util.UuidBytes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkCardIssuerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private AuditLog auditLog;
+    private BulkIssueProperties properties;
+    private DataSourceTransactionManager transactionManager;
+    private PanAllocator panAllocator;
+    private CardEventOutbox cardEventOutbox;
+    private DashboardStats dashboardStats;
+    private BalanceLedger balanceLedger;
+    private BulkCardIssuer bulkCardIssuer;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        new EncryptionUtil().setEncryptionKey("ThisIsASecretKey1234567890123456");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE cards (id BINARY(16) PRIMARY KEY, card_number VARCHAR(255) NOT NULL UNIQUE, "
+                + "expiry_date DATE NOT NULL, status VARCHAR(50) NOT NULL, balance DECIMAL(19, 2) NOT NULL, "
+                + "version BIGINT NOT NULL, user_id BINARY(16) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE outbox_event (id BINARY(16) PRIMARY KEY, created_at TIMESTAMP(6) NOT NULL, "
+                + "aggregate_id BINARY(16) NOT NULL, event_type VARCHAR(50) NOT NULL, payload VARCHAR(1000) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE dashboard_stats (metric VARCHAR(50) NOT NULL, stripe INT NOT NULL, "
+                + "amount DECIMAL(19, 2) NOT NULL, PRIMARY KEY (metric, stripe))");
+        jdbcTemplate.execute("CREATE TABLE balance_ledger (id BINARY(16) PRIMARY KEY, card_id BINARY(16) NOT NULL, "
+                + "entry_type VARCHAR(50) NOT NULL, amount DECIMAL(19, 2) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE pan_block_counter (bin VARCHAR(8) PRIMARY KEY, next_offset BIGINT NOT NULL)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        userRepository = mock(UserRepository.class);
+        auditLog = mock(AuditLog.class);
+        properties = new BulkIssueProperties();
+        properties.setBatchSize(400);
+        properties.setMaxCardsPerJob(5000);
+        properties.setEncryptionThreads(2);
+        panAllocator = new PanAllocator(dataSource, new PanProperties(), new SimpleMeterRegistry());
+        cardEventOutbox = new CardEventOutbox(jdbcTemplate, new ObjectMapper());
+        dashboardStats = new DashboardStats(jdbcTemplate, transactionManager, new ShardTopology(1),
+                new DashboardStatsProperties(), new SimpleMeterRegistry());
+        balanceLedger = new BalanceLedger(jdbcTemplate);
+        bulkCardIssuer = new BulkCardIssuer(userRepository, new ShardTopology(1), panAllocator, cardEventOutbox,
+                dashboardStats, balanceLedger, auditLog, jdbcTemplate, transactionManager, properties, Runnable::run);
+
+        alice = user(UserStatus.ACTIVE);
+        bob = user(UserStatus.ACTIVE);
+    }
+
+    @Test
+    void testSubmit_IssuesAllCardsInBatches() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(alice, bob));
+
+        BulkIssueJobResponse submitted = bulkCardIssuer.submit(request(item(alice, 1000), item(bob, 250)));
+        BulkIssueJobResponse job = bulkCardIssuer.getJob(submitted.getJobId());
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(1250, job.getRequested());
+        assertEquals(1250, job.getIssued());
+        assertEquals(1000, countCards(alice));
+        assertEquals(250, countCards(bob));
+        assertEquals(1250, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT card_number) FROM cards", Integer.class));
+        assertEquals(1250, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_event WHERE event_type = 'CARD_CREATED'", Integer.class));
+        String number = jdbcTemplate.queryForObject("SELECT card_number FROM cards FETCH FIRST 1 ROWS ONLY", String.class);
+        assertTrue(Luhn.isValid(EncryptionUtil.decrypt(number)));
+        verify(auditLog).record(eq(AuditLog.Action.CARDS_BULK_ISSUED), eq(alice.getId()), contains("1000 cards"));
+        assertEquals(1250L, dashboardStats.snapshot().getCardsByStatus().get("ACTIVE"));
+        assertEquals(new BigDecimal("250000.00"), dashboardStats.snapshot().getTotalBalance());
+        assertEquals(new BigDecimal("250000.00"), jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM balance_ledger WHERE entry_type = 'ISSUED'", BigDecimal.class));
+    }
+
+    @Test
+    void testSubmit_InactiveOrMissingUserRejected() {
+        User blocked = user(UserStatus.BLOCKED);
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(alice, blocked));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> bulkCardIssuer.submit(request(item(alice, 1), item(blocked, 1), item(bob, 1))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertTrue(ex.getReason().contains(blocked.getId().toString()));
+        assertTrue(ex.getReason().contains(bob.getId().toString()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards", Integer.class));
+    }
+
+    @Test
+    void testSubmit_InvalidRequestsRejected() {
+        assertThrows(ResponseStatusException.class, () -> bulkCardIssuer.submit(request()));
+        assertThrows(ResponseStatusException.class, () -> bulkCardIssuer.submit(request(item(alice, 0))));
+        assertThrows(ResponseStatusException.class, () -> bulkCardIssuer.submit(request(item(alice, 3000), item(bob, 3000))));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testSubmit_FailedBatchKeepsEarlierBatches() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(alice));
+        CardEventOutbox failingOutbox = spy(cardEventOutbox);
+        doCallRealMethod().doThrow(new IllegalStateException("outbox unavailable"))
+                .when(failingOutbox).cardsChanged(any(), anyCollection());
+        bulkCardIssuer = new BulkCardIssuer(userRepository, new ShardTopology(1), panAllocator, failingOutbox,
+                dashboardStats, balanceLedger, auditLog, jdbcTemplate, transactionManager, properties, Runnable::run);
+
+        BulkIssueJobResponse job = bulkCardIssuer.getJob(bulkCardIssuer.submit(request(item(alice, 1000))).getJobId());
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals("outbox unavailable", job.getError());
+        assertEquals(400, job.getIssued());
+        assertEquals(400, countCards(alice));
+        assertEquals(400L, dashboardStats.snapshot().getCardsByStatus().get("ACTIVE"));
+    }
+
+    @Test
+    void testGetJob_UnknownJob_NotFound() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> bulkCardIssuer.getJob(UUID.randomUUID()));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    private int countCards(User owner) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards WHERE user_id = ?", Integer.class,
+                (Object) UuidBytes.toBytes(owner.getId()));
+    }
+
+    private static BulkIssueRequest request(BulkIssueRequest.Item... items) {
+        BulkIssueRequest request = new BulkIssueRequest();
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    private static BulkIssueRequest.Item item(User user, int count) {
+        BulkIssueRequest.Item item = new BulkIssueRequest.Item();
+        item.setUserId(user.getId());
+        item.setCount(count);
+        return item;
+    }
+
+    private static User user(UserStatus status) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardChangeBusTest {
+
+    private Queue<Runnable> senderTasks;
+    private SimpleMeterRegistry meterRegistry;
+    private CardChangeBus cardChangeBus;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        senderTasks = new ArrayDeque<>();
+        meterRegistry = new SimpleMeterRegistry();
+        cardChangeBus = new CardChangeBus(meterRegistry, Duration.ofMinutes(1), Duration.ofSeconds(5), 2, 2, senderTasks::add);
+        owner = new User();
+        owner.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void testPublish_DeliveredOnlyToOwnersStreams() {
+        RecordingEmitter mine = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        cardChangeBus.subscribe(owner.getId(), mine);
+        cardChangeBus.subscribe(UUID.randomUUID(), other);
+
+        cardChangeBus.publishAfterCommit(card("150.00", CardStatus.ACTIVE));
+        runSenders();
+
+        assertEquals(1, mine.events.size());
+        assertTrue(mine.events.get(0).contains("event:card"));
+        assertTrue(mine.events.get(0).contains("\"balance\":150.00"));
+        assertTrue(other.events.isEmpty());
+    }
+
+    @Test
+    void testPublish_DeliveredOnlyAfterCommit() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        cardChangeBus.subscribe(owner.getId(), emitter);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cardChangeBus.publishAfterCommit(card("1.00", CardStatus.BLOCKED));
+            runSenders();
+            assertTrue(emitter.events.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            runSenders();
+            assertEquals(1, emitter.events.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSlowConsumer_OldestEventsDropped() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        cardChangeBus.subscribe(owner.getId(), emitter);
+
+        for (int i = 1; i <= 5; i++) {
+            cardChangeBus.publishAfterCommit(card(i + ".00", CardStatus.ACTIVE));
+        }
+        runSenders();
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("\"balance\":4.00"));
+        assertTrue(emitter.events.get(1).contains("\"balance\":5.00"));
+        assertEquals(3, meterRegistry.counter("bankcards.card_stream.events", "result", "dropped").count());
+    }
+
+    @Test
+    void testHeartbeat_OnlyForIdleStreams() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        cardChangeBus.subscribe(owner.getId(), emitter);
+
+        cardChangeBus.heartbeat();
+        cardChangeBus.heartbeat();
+        runSenders();
+
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).startsWith(":heartbeat"));
+    }
+
+    @Test
+    void testTooManyConnections_OldestClosed() {
+        RecordingEmitter first = new RecordingEmitter();
+        cardChangeBus.subscribe(owner.getId(), first);
+        cardChangeBus.subscribe(owner.getId(), new RecordingEmitter());
+        cardChangeBus.subscribe(owner.getId(), new RecordingEmitter());
+
+        cardChangeBus.publishAfterCommit(card("1.00", CardStatus.ACTIVE));
+        runSenders();
+
+        assertEquals(2, cardChangeBus.connections());
+        assertTrue(first.events.isEmpty());
+    }
+
+    @Test
+    void testFailedSend_DropsConnection() {
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.failing = true;
+        cardChangeBus.subscribe(owner.getId(), broken);
+
+        cardChangeBus.publishAfterCommit(card("1.00", CardStatus.ACTIVE));
+        runSenders();
+
+        assertEquals(0, cardChangeBus.connections());
+    }
+
+    @Test
+    void testStalledClient_DoesNotHoldUpOthersAndIsClosed() throws InterruptedException {
+        ExecutorService senders = CardChangeBus.senderPool(4);
+        cardChangeBus = new CardChangeBus(meterRegistry, Duration.ofMinutes(1), Duration.ofMillis(50), 2, 2, senders);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalledClient = new RecordingEmitter();
+        stalledClient.stalledUntil = release;
+        cardChangeBus.subscribe(owner.getId(), stalledClient);
+        User other = new User();
+        other.setId(UUID.randomUUID());
+        List<RecordingEmitter> others = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            others.add(new RecordingEmitter());
+            cardChangeBus.subscribe(i == 0 ? owner.getId() : other.getId(), others.get(i));
+        }
+        try {
+            cardChangeBus.publishAfterCommit(card("1.00", CardStatus.ACTIVE));
+            Card otherCard = card("2.00", CardStatus.ACTIVE);
+            otherCard.setOwner(other);
+            cardChangeBus.publishAfterCommit(otherCard);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (others.stream().anyMatch(emitter -> emitter.received() == 0)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            others.forEach(emitter -> assertEquals(1, emitter.received()));
+
+            Thread.sleep(100);
+            cardChangeBus.closeStalled();
+            assertEquals(3, cardChangeBus.connections());
+            assertEquals(1, meterRegistry.counter("bankcards.card_stream.stalled_connections").count());
+        } finally {
+            release.countDown();
+            senders.shutdown();
+        }
+    }
+
+    @Test
+    void testDisconnect_ClosesUsersStreams() {
+        cardChangeBus.subscribe(owner.getId(), new RecordingEmitter());
+        cardChangeBus.subscribe(owner.getId(), new RecordingEmitter());
+
+        cardChangeBus.disconnectAfterCommit(owner.getId());
+
+        assertEquals(0, cardChangeBus.connections());
+    }
+
+    private void runSenders() {
+        Runnable task;
+        while ((task = senderTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private Card card(String balance, CardStatus status) {
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setOwner(owner);
+        card.setStatus(status);
+        card.setBalance(new BigDecimal(balance));
+        return card;
+    }
+
+    /**
+     * Captures every event as the text that would go on the wire.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private boolean failing;
+        private CountDownLatch stalledUntil;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (stalledUntil != null) {
+                try {
+                    stalledUntil.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            synchronized (events) {
+                events.add(parts.stream().map(part -> data(part.getData())).collect(Collectors.joining()));
+            }
+        }
+
+        private int received() {
+            synchronized (events) {
+                return events.size();
+            }
+        }
+
+        private static String data(Object data) {
+            try {
+                return data instanceof String text ? text : new ObjectMapper().writeValueAsString(data);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBatchResponse;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.dto.TransferRequest;
@@ -8,6 +10,7 @@ import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardVersionView;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,18 +22,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class CardServiceTest {
@@ -44,6 +51,30 @@ public class CardServiceTest {
     @Mock
     private CardMapper cardMapper;
 
+    @Mock
+    private CardViewCache cardViewCache;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private CardEventOutbox cardEventOutbox;
+
+    @Mock
+    private CardChangeBus cardChangeBus;
+
+    @Mock
+    private DashboardStats dashboardStats;
+
+    @Mock
+    private BalanceLedger balanceLedger;
+
+    @Mock
+    private BalanceSnapshots balanceSnapshots;
+
+    @Mock
+    private PanAllocator panAllocator;
+
     @InjectMocks
     private CardService cardService;
 
@@ -92,6 +123,7 @@ public class CardServiceTest {
         Card savedCard = new Card();
         savedCard.setId(UUID.randomUUID());
 
+        when(panAllocator.next()).thenReturn("4000001234567899");
         when(cardRepository.save(any(Card.class))).thenReturn(savedCard);
         when(cardRepository.findById(savedCard.getId())).thenReturn(Optional.of(savedCard));
         when(cardMapper.toCardResponse(any(Card.class))).thenReturn(new CardResponse());
@@ -99,7 +131,9 @@ public class CardServiceTest {
         CardResponse result = cardService.createCard(request);
         
         assertNotNull(result);
-        verify(cardRepository, times(1)).save(any(Card.class));
+        verify(cardRepository, times(1)).save(argThat(card -> "4000001234567899".equals(card.getCardNumber())));
+        verify(dashboardStats).cardsCreated(1, new BigDecimal("200.00"));
+        verify(balanceLedger).cardsIssued(List.of(savedCard));
     }
 
     @Test
@@ -124,6 +158,11 @@ public class CardServiceTest {
         assertEquals(new BigDecimal("400.00"), myCard.getBalance());
         assertEquals(new BigDecimal("200.00"), destinationCard.getBalance());
         verify(cardRepository, times(2)).save(any(Card.class));
+        verify(cardViewCache).invalidateAfterCommit(myCard);
+        verify(cardViewCache).invalidateAfterCommit(destinationCard);
+        verify(cardEventOutbox).fundsTransferred(myCard, destinationCard, new BigDecimal("100.00"));
+        verify(balanceLedger).transferred(myCard, destinationCard, new BigDecimal("100.00"));
+        verifyNoInteractions(dashboardStats);
     }
 
     @Test
@@ -150,6 +189,9 @@ public class CardServiceTest {
 
         assertEquals(CardStatus.BLOCKED, myCard.getStatus());
         verify(cardRepository, times(1)).save(any(Card.class));
+        verify(cardViewCache).invalidateAfterCommit(myCard);
+        verify(auditLog).record(AuditLog.Action.CARD_BLOCKED, myCard.getId());
+        verify(dashboardStats).cardStatusChanged(CardStatus.ACTIVE, CardStatus.BLOCKED, 1);
     }
 
     @Test
@@ -182,7 +224,7 @@ public class CardServiceTest {
 
         when(cardRepository.findByOwnerIdAndStatusNot(currentUser.getId(), CardStatus.DELETED, PageRequest.of(0, 10)))
                 .thenReturn(cardsPage);
-        when(cardMapper.toCardResponse(myCard)).thenReturn(new CardResponse());
+        when(cardViewCache.toCardResponse(myCard)).thenReturn(new CardResponse());
 
         Pageable pageable = PageRequest.of(0, 10);
         Page<CardResponse> result = cardService.getCardsForCurrentUser(pageable);
@@ -193,6 +235,37 @@ public class CardServiceTest {
         verify(cardRepository, times(1)).findByOwnerIdAndStatusNot(any(UUID.class), any(CardStatus.class), any(Pageable.class));
     }
 
+    @Test
+    void testGetCardsByIdsForCurrentUser_OneQueryReportsMissingInRequestOrder() {
+        UUID unknown = UUID.randomUUID();
+        when(cardRepository.findWithOwnerByIdInAndOwnerUsernameAndStatusNot(any(), eq("testuser"), eq(CardStatus.DELETED)))
+                .thenReturn(List.of(myCard));
+        CardResponse mapped = new CardResponse();
+        mapped.setId(myCard.getId());
+        when(cardViewCache.toCardResponse(myCard)).thenReturn(mapped);
+
+        CardBatchResponse result = cardService.getCardsByIdsForCurrentUser(
+                List.of(unknown, myCard.getId(), otherCard.getId(), unknown));
+
+        assertEquals(List.of(mapped), result.getCards());
+        assertEquals(List.of(unknown, otherCard.getId()), result.getMissing());
+        verify(cardRepository).findWithOwnerByIdInAndOwnerUsernameAndStatusNot(
+                List.of(unknown, myCard.getId(), otherCard.getId()), "testuser", CardStatus.DELETED);
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void testGetCardsByIdsForCurrentUser_TooManyIds_ThrowsException() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= CardBatchResponse.MAX_IDS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> cardService.getCardsByIdsForCurrentUser(ids));
+        assertThrows(IllegalArgumentException.class, () -> cardService.getCardsByIdsForCurrentUser(List.of()));
+        verifyNoInteractions(cardRepository);
+    }
+
     @Test
     void testTransferFunds_ToSameCard_ThrowsException() {
         TransferRequest transferRequest = new TransferRequest();
@@ -236,4 +309,82 @@ public class CardServiceTest {
 
         assertThrows(ResponseStatusException.class, () -> cardService.transferFunds(transferRequest));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetCardVersionForCurrentUser_OwnedCard_ReturnsVersion() {
+        when(cardRepository.findVersionByIdAndOwnerUsernameAndStatusNot(myCard.getId(), "testuser", CardStatus.DELETED))
+                .thenReturn(Optional.of(3L));
+
+        Long version = cardService.getCardVersionForCurrentUser(myCard.getId());
+
+        assertEquals(3L, version);
+        verify(cardRepository, never()).findById(any(UUID.class));
+        verify(cardMapper, never()).toCardResponse(any(Card.class));
+    }
+
+    @Test
+    void testGetCardVersionForCurrentUser_CardNotVisible_ReturnsNull() {
+        when(cardRepository.findVersionByIdAndOwnerUsernameAndStatusNot(otherCard.getId(), "testuser", CardStatus.DELETED))
+                .thenReturn(Optional.empty());
+
+        assertNull(cardService.getCardVersionForCurrentUser(otherCard.getId()));
+    }
+
+    @Test
+    void testGetCardsETagForCurrentUser_ChangesWhenVersionChanges() {
+        Pageable pageable = PageRequest.of(0, 10);
+        CardVersionView before = cardVersion(myCard.getId(), 1L);
+        CardVersionView after = cardVersion(myCard.getId(), 2L);
+
+        when(cardRepository.findVersionsByOwnerUsernameAndStatusNot("testuser", CardStatus.DELETED, pageable))
+                .thenReturn(new PageImpl<>(List.of(before), pageable, 1))
+                .thenReturn(new PageImpl<>(List.of(before), pageable, 1))
+                .thenReturn(new PageImpl<>(List.of(after), pageable, 1));
+
+        String first = cardService.getCardsETagForCurrentUser(pageable);
+        String unchanged = cardService.getCardsETagForCurrentUser(pageable);
+        String changed = cardService.getCardsETagForCurrentUser(pageable);
+
+        assertEquals(first, unchanged);
+        assertNotEquals(first, changed);
+        verify(cardMapper, never()).toCardResponse(any(Card.class));
+    }
+
+    private CardVersionView cardVersion(UUID id, Long version) {
+        return new CardVersionView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    @Test
+    void testGetBalanceAsOfForCurrentUser_OwnedCard_ReturnsSnapshot() {
+        LocalDate date = LocalDate.now().minusDays(3);
+        CardBalanceResponse snapshot = new CardBalanceResponse(myCard.getId(), currentUser.getId(),
+                date.minusDays(1), new BigDecimal("420.00"), CardStatus.ACTIVE.name());
+        when(balanceSnapshots.getAsOf(myCard.getId(), date)).thenReturn(snapshot);
+
+        CardBalanceResponse result = cardService.getBalanceAsOfForCurrentUser(myCard.getId(), date);
+
+        assertSame(snapshot, result);
+    }
+
+    @Test
+    void testGetBalanceAsOfForCurrentUser_OtherUsersCard_Forbidden() {
+        LocalDate date = LocalDate.now().minusDays(3);
+        when(balanceSnapshots.getAsOf(otherCard.getId(), date)).thenReturn(new CardBalanceResponse(otherCard.getId(),
+                otherUser.getId(), date, new BigDecimal("100.00"), CardStatus.ACTIVE.name()));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> cardService.getBalanceAsOfForCurrentUser(otherCard.getId(), date));
+
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardView;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserStatus;
+import com.example.bankcards.repository.CardOwnerVersionView;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardMapper;
+import com.example.bankcards.util.EncryptionUtil;
+import com.example.bankcards.util.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class CardViewCacheTest {
+
+    private CardMapper cardMapper;
+    private CardRepository cardRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CardViewCache cardViewCache;
+    private User owner;
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        new EncryptionUtil().setEncryptionKey("ThisIsASecretKey1234567890123456");
+        cardMapper = spy(new CardMapper(new UserMapper()));
+        cardRepository = mock(CardRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cardViewCache = new CardViewCache(cardMapper, cardRepository, new ShardTopology(1), meterRegistry, 100, Duration.ofMinutes(1), 2);
+
+        owner = new User();
+        owner.setId(UUID.randomUUID());
+        owner.setUsername("testuser");
+        owner.setRole(Role.USER);
+        owner.setStatus(UserStatus.ACTIVE);
+        owner.setVersion(0L);
+
+        card = card(owner, 0L, "500.00");
+    }
+
+    @Test
+    void testGet_SecondReadIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cardViewCache.get(card.getId(), () -> load(loads, card));
+        CardResponse response = cardViewCache.get(card.getId(), () -> load(loads, card)).orElseThrow().toCardResponse();
+
+        assertEquals(1, loads.get());
+        assertEquals(new BigDecimal("500.00"), response.getBalance());
+        assertEquals("testuser", response.getOwner().getUsername());
+        assertEquals(1, meterRegistry.counter("bankcards.card_cache.requests", "result", "hit").count());
+    }
+
+    @Test
+    void testGet_CachedViewOlderThanMinimumVersion_Reloads() {
+        cardViewCache.get(card.getId(), () -> Optional.of(card));
+        Card changedElsewhere = card(owner, 1L, "300.00");
+        changedElsewhere.setId(card.getId());
+
+        CardView view = cardViewCache.get(card.getId(), 1L, () -> Optional.of(changedElsewhere)).orElseThrow();
+
+        assertEquals(1L, view.getVersion());
+        assertEquals(new BigDecimal("300.00"), view.getBalance());
+        assertEquals(new BigDecimal("300.00"),
+                cardViewCache.get(card.getId(), Optional::empty).orElseThrow().getBalance());
+        assertEquals(1, meterRegistry.counter("bankcards.card_cache.invalidations", "source", "read").count());
+    }
+
+    @Test
+    void testInvalidateAfterCommit_StaleReaderCannotRepopulate() {
+        cardViewCache.get(card.getId(), () -> Optional.of(card));
+        Card committed = card(owner, 1L, "300.00");
+        committed.setId(card.getId());
+
+        cardViewCache.invalidateAfterCommit(card);
+        cardViewCache.get(card.getId(), () -> Optional.of(card));
+        CardResponse response = cardViewCache.get(card.getId(), () -> Optional.of(committed)).orElseThrow().toCardResponse();
+
+        assertEquals(new BigDecimal("300.00"), response.getBalance());
+        assertEquals(new BigDecimal("300.00"),
+                cardViewCache.get(card.getId(), Optional::empty).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testInvalidateAfterCommit_AppliedOnlyAfterCommit() {
+        cardViewCache.get(card.getId(), () -> Optional.of(card));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cardViewCache.invalidateAfterCommit(card);
+            assertEquals(1, cardViewCache.size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(0, cardViewCache.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testToCardResponse_ReusesViewOnlyForSameVersion() {
+        cardViewCache.toCardResponse(card);
+        cardViewCache.toCardResponse(card);
+        verify(cardMapper, times(1)).toCardView(card);
+
+        card.setVersion(1L);
+        card.setBalance(new BigDecimal("10.00"));
+        assertEquals(new BigDecimal("10.00"), cardViewCache.toCardResponse(card).getBalance());
+        verify(cardMapper, times(2)).toCardView(card);
+    }
+
+    @Test
+    void testToCardResponse_ReturnsIndependentCopies() {
+        CardResponse first = cardViewCache.toCardResponse(card);
+        first.setBalance(BigDecimal.ZERO);
+        first.getOwner().setUsername("changed");
+
+        CardResponse second = cardViewCache.toCardResponse(card);
+        assertEquals(new BigDecimal("500.00"), second.getBalance());
+        assertEquals("testuser", second.getOwner().getUsername());
+    }
+
+    @Test
+    void testInvalidateOwnerAfterCommit_DropsOwnersCards() {
+        User otherOwner = new User();
+        otherOwner.setId(UUID.randomUUID());
+        otherOwner.setUsername("otheruser");
+        otherOwner.setRole(Role.USER);
+        otherOwner.setStatus(UserStatus.ACTIVE);
+        otherOwner.setVersion(0L);
+        Card otherCard = card(otherOwner, 0L, "1.00");
+        cardViewCache.toCardResponse(card);
+        cardViewCache.toCardResponse(otherCard);
+
+        cardViewCache.invalidateOwnerAfterCommit(owner);
+        cardViewCache.get(card.getId(), () -> Optional.of(card));
+
+        assertEquals(1, cardViewCache.size());
+        assertTrue(cardViewCache.get(otherCard.getId(), Optional::empty).isPresent());
+    }
+
+    @Test
+    void testEvictAfterCommit_DeletedCardIsNotCachedAgain() {
+        cardViewCache.toCardResponse(card);
+
+        cardViewCache.evictAfterCommit(card.getId());
+        cardViewCache.toCardResponse(card);
+
+        assertEquals(0, cardViewCache.size());
+    }
+
+    @Test
+    void testPollVersions_DropsCardsChangedOrDeletedElsewhere() {
+        Card unchanged = card(owner, 3L, "1.00");
+        Card changed = card(owner, 1L, "2.00");
+        Card deleted = card(owner, 0L, "3.00");
+        List.of(unchanged, changed, deleted).forEach(cardViewCache::toCardResponse);
+
+        when(cardRepository.findVersionsWithOwnerByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .filter(id -> !id.equals(deleted.getId()))
+                    .map(id -> versions(id, id.equals(changed.getId()) ? 2L : 3L, 0L))
+                    .toList();
+        });
+        cardViewCache.pollVersions();
+
+        assertEquals(1, cardViewCache.size());
+        assertTrue(cardViewCache.get(unchanged.getId(), Optional::empty).isPresent());
+        verify(cardRepository, times(2)).findVersionsWithOwnerByIdIn(anyCollection());
+        assertEquals(2, meterRegistry.counter("bankcards.card_cache.invalidations", "source", "poll").count());
+    }
+
+    private static Optional<Card> load(AtomicInteger loads, Card card) {
+        loads.incrementAndGet();
+        return Optional.of(card);
+    }
+
+    private static Card card(User owner, Long version, String balance) {
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(EncryptionUtil.encrypt("4000001234567899"));
+        card.setExpiryDate(LocalDate.of(2030, 1, 31));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal(balance));
+        card.setVersion(version);
+        card.setOwner(owner);
+        return card;
+    }
+
+    private static CardOwnerVersionView versions(UUID id, Long version, Long ownerVersion) {
+        return new CardOwnerVersionView() {
+            @Override
+            public Long getOwnerVersion() {
+                return ownerVersion;
+            }
+
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.DashboardStatsProperties;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.dto.AdminStatsResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardStatsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardStats dashboardStats;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:dashboard-stats-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE dashboard_stats (metric VARCHAR(50) NOT NULL, stripe INT NOT NULL, "
+                + "amount DECIMAL(19, 2) NOT NULL, PRIMARY KEY (metric, stripe))");
+        jdbcTemplate.execute("CREATE TABLE cards (id INT PRIMARY KEY, status VARCHAR(50) NOT NULL, "
+                + "balance DECIMAL(19, 2) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE users (id INT PRIMARY KEY, status VARCHAR(50) NOT NULL)");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry = new SimpleMeterRegistry();
+
+        DashboardStatsProperties properties = new DashboardStatsProperties();
+        properties.setStripes(4);
+        dashboardStats = new DashboardStats(jdbcTemplate, transactionManager, new ShardTopology(1), properties, meterRegistry);
+    }
+
+    @Test
+    void testDeltas_AddUpAcrossStripes() {
+        for (int i = 0; i < 20; i++) {
+            inTransaction(() -> dashboardStats.cardsCreated(1, new BigDecimal("200.00")));
+        }
+        inTransaction(() -> dashboardStats.cardStatusChanged(CardStatus.ACTIVE, CardStatus.BLOCKED, 3));
+        inTransaction(() -> dashboardStats.cardRemoved(card(CardStatus.BLOCKED, "150.00")));
+        inTransaction(() -> dashboardStats.activeUsersChanged(5));
+        inTransaction(() -> dashboardStats.activeUsersChanged(-2));
+
+        AdminStatsResponse stats = dashboardStats.snapshot();
+
+        assertEquals(17L, stats.getCardsByStatus().get("ACTIVE"));
+        assertEquals(2L, stats.getCardsByStatus().get("BLOCKED"));
+        assertEquals(0L, stats.getCardsByStatus().get("EXPIRED"));
+        assertEquals(new BigDecimal("3850.00"), stats.getTotalBalance());
+        assertEquals(3L, stats.getActiveUsers());
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT stripe) FROM dashboard_stats", Integer.class) > 1);
+    }
+
+    @Test
+    void testDeltas_RolledBackWithTheirTransaction() {
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+            dashboardStats.cardsCreated(1, new BigDecimal("200.00"));
+            throw new IllegalStateException("card insert failed");
+        }));
+
+        assertEquals(0L, dashboardStats.snapshot().getCardsByStatus().get("ACTIVE"));
+    }
+
+    @Test
+    void testRecompute_RepairsDriftAndKeepsLaterDeltas() {
+        jdbcTemplate.update("INSERT INTO cards (id, status, balance) VALUES (1, 'ACTIVE', 100.00), "
+                + "(2, 'ACTIVE', 50.50), (3, 'EXPIRED', 0.00)");
+        jdbcTemplate.update("INSERT INTO users (id, status) VALUES (1, 'ACTIVE'), (2, 'BLOCKED')");
+        inTransaction(() -> dashboardStats.cardsCreated(7, new BigDecimal("1400.00")));
+
+        dashboardStats.recompute();
+        inTransaction(() -> dashboardStats.cardStatusChanged(CardStatus.ACTIVE, CardStatus.BLOCKED, 1));
+        AdminStatsResponse stats = dashboardStats.snapshot();
+
+        assertEquals(1L, stats.getCardsByStatus().get("ACTIVE"));
+        assertEquals(1L, stats.getCardsByStatus().get("BLOCKED"));
+        assertEquals(1L, stats.getCardsByStatus().get("EXPIRED"));
+        assertEquals(new BigDecimal("150.50"), stats.getTotalBalance());
+        assertEquals(1L, stats.getActiveUsers());
+        assertEquals(1.0, meterRegistry.counter("bankcards.dashboard_stats.corrections").count());
+    }
+
+    @Test
+    void testRecompute_FirstFillIsNotDrift() {
+        dashboardStats.recompute();
+        dashboardStats.recompute();
+
+        assertEquals(0.0, meterRegistry.counter("bankcards.dashboard_stats.corrections").count());
+        assertEquals(new BigDecimal("0.00"), dashboardStats.snapshot().getTotalBalance());
+    }
+
+    private void inTransaction(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+
+    private static Card card(CardStatus status, String balance) {
+        Card card = new Card();
+        card.setStatus(status);
+        card.setBalance(new BigDecimal(balance));
+        return card;
+    }
+}
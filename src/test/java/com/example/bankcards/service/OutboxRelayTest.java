@@ -0,0 +1,127 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.OutboxProperties;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboxRelayTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+    private CardEventOutbox cardEventOutbox;
+    private OutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<OutboxEvent>> publishedBatches;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE outbox_event (id BINARY(16) PRIMARY KEY, created_at TIMESTAMP(6) NOT NULL, "
+                + "aggregate_id BINARY(16) NOT NULL, event_type VARCHAR(50) NOT NULL, payload VARCHAR(1000) NOT NULL)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cardEventOutbox = new CardEventOutbox(jdbcTemplate, new ObjectMapper());
+        properties = new OutboxProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        publishedBatches = new ArrayList<>();
+    }
+
+    @Test
+    void testRelay_PublishesInOrderAndDeletes() {
+        Card source = card();
+        Card destination = card();
+        transactionTemplate.executeWithoutResult(status -> {
+            cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_CREATED, source);
+            cardEventOutbox.fundsTransferred(source, destination, new BigDecimal("12.50"));
+        });
+
+        relay(publishedBatches::add).relay();
+
+        assertEquals(1, publishedBatches.size());
+        List<OutboxEvent> events = publishedBatches.get(0);
+        assertEquals(List.of(OutboxEvent.Type.CARD_CREATED, OutboxEvent.Type.FUNDS_TRANSFERRED),
+                events.stream().map(OutboxEvent::type).toList());
+        assertEquals(source.getId(), events.get(1).aggregateId());
+        assertTrue(events.get(1).payload().contains("\"amount\":12.50"));
+        assertEquals(0, rows());
+        assertEquals(2, meterRegistry.counter("bankcards.outbox.published").count());
+    }
+
+    @Test
+    void testRelay_DrainsBacklogInBatches() {
+        properties.setBatchSize(2);
+        List<Card> cards = List.of(card(), card(), card(), card(), card());
+        transactionTemplate.executeWithoutResult(status -> cardEventOutbox.cardsChanged(OutboxEvent.Type.CARD_EXPIRED, cards));
+
+        relay(publishedBatches::add).relay();
+
+        assertEquals(List.of(2, 2, 1), publishedBatches.stream().map(List::size).toList());
+        assertEquals(cards.stream().map(Card::getId).toList(),
+                publishedBatches.stream().flatMap(List::stream).map(OutboxEvent::aggregateId).toList());
+        assertEquals(0, rows());
+    }
+
+    @Test
+    void testRelay_SinkFailureKeepsEventsForNextPoll() {
+        transactionTemplate.executeWithoutResult(status -> cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_BLOCKED, card()));
+
+        relay(events -> {
+            throw new IllegalStateException("sink unavailable");
+        }).relay();
+
+        assertEquals(1, rows());
+        assertEquals(1, meterRegistry.counter("bankcards.outbox.failures").count());
+
+        relay(publishedBatches::add).relay();
+        assertEquals(0, rows());
+        assertEquals(1, publishedBatches.size());
+    }
+
+    @Test
+    void testRolledBackChange_LeavesNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            cardEventOutbox.cardChanged(OutboxEvent.Type.CARD_DELETED, card());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, rows());
+    }
+
+    private OutboxRelay relay(OutboxSink sink) {
+        return new OutboxRelay(jdbcTemplate, transactionManager, sink, properties, meterRegistry);
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Integer.class);
+    }
+
+    private static Card card() {
+        User owner = new User();
+        owner.setId(UUID.randomUUID());
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setOwner(owner);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(BigDecimal.ZERO);
+        return card;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.PanProperties;
+import com.example.bankcards.util.Luhn;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PanAllocatorTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PanProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:pan-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE pan_block_counter (bin VARCHAR(8) PRIMARY KEY, next_offset BIGINT NOT NULL)");
+        properties = new PanProperties();
+        properties.setBlockSize(100);
+    }
+
+    @Test
+    void testNext_IssuesLuhnValidNumbersUnderBin() {
+        PanAllocator allocator = allocator();
+
+        for (int i = 0; i < 250; i++) {
+            String pan = allocator.next();
+            assertEquals(16, pan.length());
+            assertTrue(pan.startsWith("400000"));
+            assertTrue(Luhn.isValid(pan), pan);
+        }
+        assertEquals(300L, jdbcTemplate.queryForObject(
+                "SELECT next_offset FROM pan_block_counter WHERE bin = '400000'", Long.class));
+    }
+
+    @Test
+    void testNext_ConsecutiveCardsDoNotGetConsecutiveNumbers() {
+        PanAllocator allocator = allocator();
+
+        long first = Long.parseLong(allocator.next().substring(6, 15));
+        long second = Long.parseLong(allocator.next().substring(6, 15));
+
+        assertTrue(Math.abs(second - first) > 1);
+    }
+
+    @Test
+    void testNext_UniqueAcrossNodesAndThreads() throws Exception {
+        List<PanAllocator> nodes = List.of(allocator(), allocator());
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                PanAllocator node = nodes.get(t % 2);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(issued.add(node.next()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4000, issued.size());
+    }
+
+    @Test
+    void testNext_LeasesWhileCallersHoldEveryPooledConnection() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(dataSource.getUrl());
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(250);
+        PanAllocator allocator = new PanAllocator(pool, properties, new SimpleMeterRegistry());
+        try {
+            TransactionTemplate callerTransaction = new TransactionTemplate(new DataSourceTransactionManager(pool));
+
+            String pan = callerTransaction.execute(status -> {
+                new JdbcTemplate(pool).queryForObject("SELECT COUNT(*) FROM pan_block_counter", Long.class);
+                return allocator.next();
+            });
+
+            assertTrue(Luhn.isValid(pan), pan);
+        } finally {
+            allocator.shutdown();
+            pool.close();
+        }
+    }
+
+    @Test
+    void testNext_MovesToNextBinWhenExhausted() {
+        properties.setBins(List.of("40000000", "51000000"));
+        jdbcTemplate.update("INSERT INTO pan_block_counter (bin, next_offset) VALUES ('40000000', 9999990)");
+        PanAllocator allocator = allocator();
+
+        Set<String> first = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            first.add(allocator.next());
+        }
+
+        assertTrue(first.stream().allMatch(pan -> pan.startsWith("40000000")));
+        assertEquals(10, first.size());
+        assertTrue(allocator.next().startsWith("51000000"));
+    }
+
+    @Test
+    void testInvalidConfiguration_Rejected() {
+        properties.setBins(List.of("4000"));
+        assertThrows(IllegalArgumentException.class, this::allocator);
+
+        properties.setBins(List.of("400000"));
+        properties.setScrambleMultiplier(738_245_415L);
+        assertThrows(IllegalArgumentException.class, this::allocator);
+    }
+
+    @Test
+    void testLuhn_KnownNumbers() {
+        assertTrue(Luhn.isValid("79927398713"));
+        assertTrue(Luhn.isValid("4539578763621486"));
+        assertFalse(Luhn.isValid("4539578763621487"));
+        assertFalse(Luhn.isValid("45395787636214a6"));
+    }
+
+    private PanAllocator allocator() {
+        return new PanAllocator(dataSource, properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardRoutingDataSource;
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.util.UuidBytes;
+import com.example.bankcards.util.UuidV7Generator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScatterGatherTest {
+
+    private List<DataSource> shards;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private ScatterGather scatterGather;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DriverManagerDataSource shard = new DriverManagerDataSource(
+                    "jdbc:h2:mem:scatter-" + i + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+            new JdbcTemplate(shard).execute("CREATE TABLE accounts (id BINARY(16) PRIMARY KEY, "
+                    + "name VARCHAR(50), balance DECIMAL(19, 2) NOT NULL)");
+            shards.add(shard);
+        }
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        scatterGather = new ScatterGather(new ShardTopology(shards.size()), transactionManager,
+                Executors.newFixedThreadPool(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scatterGather.shutdown();
+    }
+
+    @Test
+    void testPage_MergesShardsInRequestedOrder() {
+        List<Account> all = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            all.add(insert(i % 3, "user" + i, new BigDecimal(i % 7 * 10 + ".00")));
+        }
+        Comparator<Account> expectedOrder = Comparator.comparing(Account::balance).reversed()
+                .thenComparing(Account::id, (left, right) -> Long.compareUnsigned(
+                        left.getMostSignificantBits(), right.getMostSignificantBits()));
+        List<Account> expected = all.stream().sorted(expectedOrder).toList();
+
+        for (int page = 0; page < 5; page++) {
+            Page<String> result = scatterGather.page(PageRequest.of(page, 7, Sort.by(Sort.Direction.DESC, "balance")),
+                    this::findAccounts, Account::name);
+
+            assertEquals(30, result.getTotalElements());
+            assertEquals(5, result.getTotalPages());
+            assertEquals(expected.stream().skip(page * 7L).limit(7).map(Account::name).toList(), result.getContent());
+        }
+    }
+
+    @Test
+    void testPage_ComparesTextIgnoringCaseWithNullsFirst() {
+        insert(0, "carol", BigDecimal.ONE);
+        insert(1, "Bob", BigDecimal.ONE);
+        insert(2, "alice", BigDecimal.ONE);
+        insert(1, null, BigDecimal.ONE);
+
+        Page<String> ascending = scatterGather.page(PageRequest.of(0, 10, Sort.by("name")),
+                this::findAccounts, account -> String.valueOf(account.name()));
+        Page<String> descending = scatterGather.page(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "name")),
+                this::findAccounts, account -> String.valueOf(account.name()));
+
+        assertEquals(List.of("null", "alice", "Bob", "carol"), ascending.getContent());
+        assertEquals(List.of("carol", "Bob", "alice", "null"), descending.getContent());
+    }
+
+    @Test
+    void testPage_SingleShard_RunsQueryOnce() {
+        ScatterGather singleShard = new ScatterGather(new ShardTopology(1), transactionManager, Runnable::run);
+        insert(0, "alice", BigDecimal.TEN);
+        List<Pageable> requested = new ArrayList<>();
+
+        Page<String> result = singleShard.page(PageRequest.of(0, 5), pageable -> {
+            requested.add(pageable);
+            return findAccounts(pageable);
+        }, Account::name);
+
+        assertEquals(List.of("alice"), result.getContent());
+        assertEquals(List.of(PageRequest.of(0, 5)), requested);
+    }
+
+    private Account insert(int shard, String name, BigDecimal balance) {
+        Account account = new Account(UuidV7Generator.generate(), name, balance);
+        new JdbcTemplate(shards.get(shard)).update("INSERT INTO accounts (id, name, balance) VALUES (?, ?, ?)",
+                UuidBytes.toBytes(account.id()), name, balance);
+        return account;
+    }
+
+    private Page<Account> findAccounts(Pageable pageable) {
+        String orderBy = pageable.getSort().stream()
+                .map(order -> order.getProperty() + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", "));
+        List<Account> rows = jdbcTemplate.query("SELECT id, name, balance FROM accounts"
+                        + (orderBy.isEmpty() ? "" : " ORDER BY " + orderBy) + " LIMIT ? OFFSET ?",
+                (rs, rowNum) -> new Account(UuidBytes.fromBytes(rs.getBytes("id")), rs.getString("name"),
+                        rs.getBigDecimal("balance")),
+                pageable.getPageSize(), pageable.getOffset());
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Integer.class);
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    private record Account(UUID id, String name, BigDecimal balance) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardTopology;
+import com.example.bankcards.config.UserImportProperties;
+import com.example.bankcards.dto.UserImportResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UserImporterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditLog auditLog;
+    private DashboardStats dashboardStats;
+    private PasswordEncoder passwordEncoder;
+    private UserImportProperties properties;
+    private DataSourceTransactionManager transactionManager;
+    private UserImporter userImporter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:user-import-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Case-insensitive like the MySQL collation of the column.
+        jdbcTemplate.execute("CREATE TABLE users (id BINARY(16) PRIMARY KEY, "
+                + "username VARCHAR_IGNORECASE(255) NOT NULL UNIQUE, password VARCHAR(255) NOT NULL, "
+                + "role VARCHAR(50) NOT NULL, status VARCHAR(50) NOT NULL, refresh_token VARCHAR(255), "
+                + "version BIGINT NOT NULL)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        auditLog = mock(AuditLog.class);
+        dashboardStats = mock(DashboardStats.class);
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        properties = new UserImportProperties();
+        properties.setChunkSize(3);
+        properties.setHashingThreads(2);
+        userImporter = new UserImporter(passwordEncoder, new ShardTopology(1), auditLog, dashboardStats, jdbcTemplate,
+                transactionManager, properties);
+    }
+
+    @Test
+    void testImportCsv_InsertsActiveUsersWithHashedPasswords() {
+        UserImportResponse response = userImporter.importCsv(csv(
+                "username,password",
+                "alice,secret1",
+                "bob,secret2",
+                "\"carol, jr\",\"pa\"\"ss,word\"",
+                "",
+                "dave,secret4"));
+
+        assertEquals(4, response.getImported());
+        assertEquals(0, response.getRejected());
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE role = 'USER' AND status = 'ACTIVE' AND version = 0", Integer.class));
+        String hash = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE username = 'carol, jr'", String.class);
+        assertTrue(passwordEncoder.matches("pa\"ss,word", hash));
+        verify(auditLog).record(eq(AuditLog.Action.USERS_IMPORTED), isNull(), eq("4 imported, 0 rejected"));
+        verify(dashboardStats).activeUsersChanged(3);
+        verify(dashboardStats).activeUsersChanged(1);
+    }
+
+    @Test
+    void testImportCsv_ReportsInvalidAndDuplicateRowsAndImportsTheRest() {
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, status, version) "
+                + "VALUES (X'00000000000000000000000000000001', 'taken', 'x', 'USER', 'ACTIVE', 0)");
+
+        UserImportResponse response = userImporter.importCsv(csv(
+                "username,password",
+                "alice,secret1",
+                "taken,secret2",
+                "alice,secret3",
+                "bob,short",
+                "just-one-field",
+                "carol,secret6",
+                "alice,secret7"));
+
+        assertEquals(2, response.getImported());
+        assertEquals(5, response.getRejected());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertTrue(response.getErrors().stream()
+                .anyMatch(error -> error.getLine() == 3 && "taken".equals(error.getUsername())));
+        assertTrue(response.getErrors().stream()
+                .anyMatch(error -> error.getLine() == 4 && error.getReason().contains("earlier in the file")));
+        assertTrue(response.getErrors().stream()
+                .anyMatch(error -> error.getLine() == 8 && error.getReason().contains("already taken")));
+        assertTrue(response.getErrors().stream()
+                .anyMatch(error -> error.getLine() == 6 && error.getUsername() == null));
+    }
+
+    @Test
+    void testImportCsv_UsernamesDifferingOnlyInCase_RejectedAsDuplicates() {
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, status, version) "
+                + "VALUES (X'00000000000000000000000000000001', 'Taken', 'x', 'USER', 'ACTIVE', 0)");
+
+        UserImportResponse response = userImporter.importCsv(csv(
+                "username,password",
+                "Alice,secret1",
+                "alice,secret2",
+                "TAKEN,secret3",
+                "bob,secret4"));
+
+        assertEquals(2, response.getImported());
+        assertEquals(2, response.getRejected());
+        assertTrue(response.getErrors().stream()
+                .anyMatch(error -> error.getLine() == 3 && error.getReason().contains("earlier in the file")));
+        assertTrue(response.getErrors().stream()
+                .anyMatch(error -> error.getLine() == 4 && error.getReason().contains("already taken")));
+    }
+
+    @Test
+    void testImportCsv_ReportedErrorsCapped() {
+        properties.setMaxReportedErrors(2);
+        userImporter = new UserImporter(passwordEncoder, new ShardTopology(1), auditLog, dashboardStats, jdbcTemplate,
+                transactionManager, properties);
+
+        UserImportResponse response = userImporter.importCsv(csv("username,password", "a,1", "b,2", "c,3", "d,secret4"));
+
+        assertEquals(1, response.getImported());
+        assertEquals(3, response.getRejected());
+        assertEquals(2, response.getErrors().size());
+    }
+
+    @Test
+    void testImportCsv_MissingHeader_BadRequest() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> userImporter.importCsv(csv("alice,secret1")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        verifyNoInteractions(auditLog);
+    }
+
+    private static InputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
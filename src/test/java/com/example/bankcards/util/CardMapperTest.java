@@ -0,0 +1,195 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.CardFields;
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardMapperTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardMapperTest.class);
+    private static final int PAGE_SIZE = 100;
+
+    private final CardMapper cardMapper = new CardMapper(new UserMapper());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        new EncryptionUtil().setEncryptionKey("ThisIsASecretKey1234567890123456");
+    }
+
+    @Test
+    void testToCardResponse_AllFields_MatchesEntityMapping() {
+        Card card = card(1);
+        CardFields fields = CardFields.parse("cardNumberMasked,expiryDate,status,balance,owner");
+
+        assertEquals(cardMapper.toCardResponse(card), cardMapper.toCardResponse(row(card, fields), fields));
+    }
+
+    @Test
+    void testToCardResponse_SparseFields_ReadsAndProducesOnlyThose() {
+        Card card = card(1);
+        CardFields fields = CardFields.parse("status,owner.username");
+
+        // The row holds no card number, so reading it would fail.
+        JsonNode json = objectMapper.valueToTree(cardMapper.toCardResponse(row(card, fields), fields));
+
+        assertEquals(card.getId().toString(), json.get("id").asText());
+        assertEquals("ACTIVE", json.get("status").asText());
+        assertEquals("user", json.get("owner").get("username").asText());
+        assertEquals(card.getOwner().getId().toString(), json.get("owner").get("id").asText());
+        assertFalse(json.has("cardNumberMasked"));
+        assertFalse(json.has("balance"));
+        assertFalse(json.get("owner").has("role"));
+    }
+
+    /**
+     * Maps and serializes a page of 100 cards in full and with {@code fields=status,balance}. The
+     * timings are only logged; the sizes are asserted.
+     */
+    @Test
+    void testBenchmark_HundredCardPage() throws Exception {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            cards.add(card(i));
+        }
+        CardFields dashboard = CardFields.parse("status,balance");
+        List<Tuple> rows = cards.stream().map(card -> row(card, dashboard)).toList();
+
+        Result full = measure("Full card", cards, cardMapper::toCardResponse);
+        Result sparse = measure("fields=status,balance", rows, row -> cardMapper.toCardResponse(row, dashboard));
+
+        assertTrue(sparse.bytes() * 2 < full.bytes());
+    }
+
+    private <E> Result measure(String name, List<E> page, Function<E, CardResponse> mapper) throws Exception {
+        int warmup = 200;
+        int iterations = 1_000;
+        int bytes = 0;
+        for (int i = 0; i < warmup; i++) {
+            bytes = objectMapper.writeValueAsBytes(page.stream().map(mapper).toList()).length;
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(page.stream().map(mapper).toList());
+        }
+        double micros = (System.nanoTime() - started) / 1_000.0 / iterations;
+        logger.info("{}: {} bytes, {} us per {}-card page", name, bytes, String.format("%.1f", micros), PAGE_SIZE);
+        return new Result(bytes, micros);
+    }
+
+    private static Card card(int index) {
+        User owner = new User();
+        owner.setId(UUID.randomUUID());
+        owner.setUsername("user");
+        owner.setRole(Role.USER);
+        owner.setStatus(UserStatus.ACTIVE);
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(EncryptionUtil.encrypt("40000012345" + (10_000 + index)));
+        card.setExpiryDate(LocalDate.of(2029, 12, 31));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("1000.00"));
+        card.setOwner(owner);
+        return card;
+    }
+
+    /**
+     * The tuple {@code CardSearchRepository.findFields} would return for {@code card}.
+     */
+    private static Tuple row(Card card, CardFields fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", card.getId());
+        if (fields.has("cardNumberMasked")) {
+            values.put("cardNumber", card.getCardNumber());
+        }
+        if (fields.has("expiryDate")) {
+            values.put("expiryDate", card.getExpiryDate());
+        }
+        if (fields.has("status")) {
+            values.put("status", card.getStatus());
+        }
+        if (fields.has("balance")) {
+            values.put("balance", card.getBalance());
+        }
+        if (fields.hasOwner()) {
+            values.put("ownerId", card.getOwner().getId());
+        }
+        if (fields.hasOwner("username")) {
+            values.put("ownerUsername", card.getOwner().getUsername());
+        }
+        if (fields.hasOwner("role")) {
+            values.put("ownerRole", card.getOwner().getRole());
+        }
+        if (fields.hasOwner("status")) {
+            values.put("ownerStatus", card.getOwner().getStatus());
+        }
+        return new MapTuple(values);
+    }
+
+    private record Result(int bytes, double micros) {
+    }
+
+    private record MapTuple(Map<String, Object> values) implements Tuple {
+
+        @Override
+        public <X> X get(String alias, Class<X> type) {
+            if (!values.containsKey(alias)) {
+                throw new IllegalArgumentException("No column " + alias);
+            }
+            return type.cast(values.get(alias));
+        }
+
+        @Override
+        public Object get(String alias) {
+            return get(alias, Object.class);
+        }
+
+        @Override
+        public <X> X get(TupleElement<X> element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <X> X get(int index, Class<X> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object get(int index) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return values.values().toArray();
+        }
+
+        @Override
+        public List<TupleElement<?>> getElements() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.ShardTopology;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+
+    @Test
+    void testGenerate_SetsVersionAndVariant() {
+        UUID id = UuidV7Generator.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void testGenerate_EmbedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.generate();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    void testGenerate_IsMonotonicWithinNode() {
+        UUID previous = UuidV7Generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.generate();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testGenerate_ConcurrentCallsProduceUniqueIds() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(UuidV7Generator.generate()));
+
+        assertEquals(200_000, ids.size());
+    }
+
+    @Test
+    void testColocatedWith_CopiesShardKeyOfOwner() {
+        UUID owner = UuidV7Generator.forUsername("alice");
+        UUID card = UuidV7Generator.colocatedWith(owner);
+
+        assertEquals(ShardContext.keyBits("alice"), ShardContext.keyBits(owner));
+        assertEquals(ShardContext.keyBits(owner), ShardContext.keyBits(card));
+        assertEquals(7, card.version());
+        assertEquals(2, card.variant());
+        assertTrue(Long.compareUnsigned(card.getMostSignificantBits(), owner.getMostSignificantBits()) > 0);
+    }
+
+    @Test
+    void testForUsername_IgnoresCase() {
+        ShardTopology shardTopology = new ShardTopology(7);
+
+        assertEquals(ShardContext.keyBits("alice"), ShardContext.keyBits(UuidV7Generator.forUsername("Alice")));
+        assertEquals(shardTopology.shardOf("alice"), shardTopology.shardOf("ALICE"));
+    }
+}